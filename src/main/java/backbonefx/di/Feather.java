@@ -15,6 +15,9 @@
  */
 package backbonefx.di;
 
+import backbonefx.event.EventBus;
+import backbonefx.event.EventHandlers;
+import backbonefx.event.Subscribe;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import jakarta.inject.Qualifier;
@@ -212,6 +215,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * Do not confuse {@code backbonefx.di.Initializable} with {@code javafx.fxml.Initializable}.
  * The latter is not supported to avoid javafx-fxml dependency.
  *
+ * <h2>Event Handlers</h2>
+ * Feather can subscribe {@link Subscribe} annotated methods of the objects it creates
+ * to the event bus. This feature is disabled by default and can be enabled by
+ * {@link #withEventHandlers()}. The event bus is obtained from Feather itself, so the
+ * {@link EventBus} dependency must be provided by a module as a singleton. Handlers are subscribed right
+ * after {@link Initializable#init()} and stay subscribed as long as the object is reachable,
+ * the event bus only keeps a weak reference to it.
+ *
  * <h2>How it works under the hood</h2>
  *
  * Feather is based on optimal use of reflection to provide dependencies. No code generating,
@@ -252,6 +263,8 @@ public class Feather {
     private final Map<Key<?>, Provider<?>> providers = new ConcurrentHashMap<>();
     private final Map<Key<?>, Object> singletons = new ConcurrentHashMap<>();
     private final Map<Class<?>, Object[][]> injectFields = new ConcurrentHashMap<>(0);
+    private volatile boolean subscribeEventHandlers;
+    private volatile EventBus eventBus;
 
     /** Constructs Feather with configuration modules */
     public static Feather with(Object... modules) {
@@ -276,6 +289,17 @@ public class Feather {
         }
     }
 
+    /**
+     * Enables subscribing {@link Subscribe} annotated methods of created objects
+     * to the provided {@link EventBus}.
+     *
+     * @return this Feather instance.
+     */
+    public Feather withEventHandlers() {
+        subscribeEventHandlers = true;
+        return this;
+    }
+
     /** @return an instance of type */
     public <T> T instance(Class<T> type) {
         return provider(Key.of(type), null).get();
@@ -337,6 +361,10 @@ public class Feather {
                     if (o instanceof Initializable initializable) {
                         initializable.init();
                     }
+                    if (subscribeEventHandlers && !(o instanceof EventBus) && EventHandlers.hasHandlers(o.getClass())) {
+                        // the event bus must not keep non-singletons alive
+                        EventHandlers.subscribeWeakly(eventBus(), o);
+                    }
                     return o;
                 } catch (Exception e) {
                     throw new FeatherException(String.format("Can't instantiate %s", key), e);
@@ -346,6 +374,19 @@ public class Feather {
         return (Provider<T>) providers.get(key);
     }
 
+    /** Resolves the event bus for the event handlers once, it must be the same for all objects. */
+    private EventBus eventBus() {
+        EventBus bus = eventBus;
+        if (bus == null) {
+            bus = instance(EventBus.class);
+            if (!singletons.containsKey(Key.of(EventBus.class))) {
+                throw new FeatherException("EventBus must be provided as a singleton to subscribe event handlers.");
+            }
+            eventBus = bus;
+        }
+        return bus;
+    }
+
     private void providerMethod(Object module, Method m) {
         final Key<?> key = Key.of(m.getReturnType(), qualifier(m.getAnnotations()));
         if (providers.containsKey(key)) {
@@ -0,0 +1,33 @@
+package backbonefx.event;
+
+/**
+ * Base class for events that can be consumed to stop their further propagation.
+ *
+ * @see ConsumableEvent
+ */
+public abstract class AbstractConsumableEvent extends AbstractEvent implements ConsumableEvent {
+
+    private volatile boolean consumed;
+
+    /** Creates new event without event source specified. */
+    protected AbstractConsumableEvent() {
+        super();
+    }
+
+    /** Creates new event from specified event source. */
+    protected AbstractConsumableEvent(EventSource source) {
+        super(source);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void consume() {
+        consumed = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isConsumed() {
+        return consumed;
+    }
+}
@@ -8,11 +8,18 @@ import java.util.UUID;
 /**
  * Base class for events that provides some useful methods to avoid
  * boilerplate code.
+ * <p>
+ * Each event gets a unique ID, which is used for equality checks. IDs are
+ * generated by {@link EventIdGenerator#SEQUENTIAL} by default, which is much
+ * cheaper than random UUIDs. The strategy can be changed globally with
+ * {@link #setIdGenerator(EventIdGenerator)}.
  */
 @SuppressWarnings("unused")
 public abstract class AbstractEvent implements Event {
 
-    protected final UUID id = UUID.randomUUID();
+    private static volatile EventIdGenerator idGenerator = EventIdGenerator.SEQUENTIAL;
+
+    protected final UUID id = idGenerator.nextId();
     protected final EventSource source;
 
     /** Creates new event without event source specified. */
@@ -25,6 +32,14 @@ public abstract class AbstractEvent implements Event {
         this.source = source;
     }
 
+    /**
+     * Sets the ID generation strategy for all events created after this call.
+     * The generator must be thread-safe and never return the same ID twice.
+     */
+    public static void setIdGenerator(EventIdGenerator generator) {
+        idGenerator = Objects.requireNonNull(generator, "ID generator must not be null.");
+    }
+
     /** Returns unique event ID. */
     public UUID getId() {
         return id;
@@ -0,0 +1,289 @@
+package backbonefx.event;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Event bus implementation that decouples publishers from subscribers. Each subscriber
+ * gets its own mailbox, which is drained by the executor chosen at subscription time.
+ * Publishing an event only puts it into the mailboxes of matching subscribers, so the
+ * publisher is never blocked by a slow consumer.
+ * <p>
+ * Events are delivered to a particular subscriber in the same order they were published,
+ * and a subscriber is never called concurrently, even if its executor is a thread pool.
+ * There are no ordering guarantees between different subscribers.
+ * <p>
+ * Subscribers that are only interested in the current state, e.g. progress or cursor
+ * position updates, can use conflating subscriptions. Such subscriber only receives the
+ * latest event per conflation key that was published since the previous delivery.
+ * <p>
+ * Mailboxes are unbounded by default. If a subscriber can fall behind for a long time,
+ * use bounded subscriptions, which limit the number of pending events and apply the
+ * specified {@link OverflowPolicy} when the limit is reached.
+ * <p>
+ * Subscriber matching follows the {@link DefaultEventBus} rules.
+ */
+@SuppressWarnings("unchecked")
+public final class AsyncEventBus implements EventBus {
+
+    /** Delivers events synchronously in the publisher thread. */
+    public static final Executor CALLER_THREAD = Runnable::run;
+
+    /**
+     * Starts a new thread for each mailbox drain. To use virtual threads on Java 21+
+     * pass {@code Executors.newVirtualThreadPerTaskExecutor()} instead.
+     */
+    public static final Executor NEW_THREAD = command -> {
+        Thread thread = new Thread(command);
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    /** Delivers events in the shared {@link ForkJoinPool#commonPool()}. */
+    public static final Executor SHARED_POOL = ForkJoinPool.commonPool();
+
+    /** Delivers events in the JavaFX application thread. */
+    public static final Executor FX_THREAD = Platform::runLater;
+
+    /** Conflates events of the same class. */
+    public static final Function<Event, Object> CONFLATE_BY_TYPE = Event::getClass;
+
+    /** Conflates events sent by the same {@link EventSource}. */
+    public static final Function<Event, Object> CONFLATE_BY_SOURCE =
+            event -> event instanceof AbstractEvent e ? e.getSource() : null;
+
+    private final DefaultEventBus delegate = new DefaultEventBus();
+    private final Map<Consumer<?>, SerialMailbox<?>> mailboxes = new ConcurrentHashMap<>();
+    private final Executor defaultExecutor;
+
+    /** Creates new event bus that delivers events in the {@link #SHARED_POOL} by default. */
+    public AsyncEventBus() {
+        this(SHARED_POOL);
+    }
+
+    /**
+     * Creates new event bus.
+     *
+     * @param defaultExecutor the executor used for subscribers that don't specify
+     *                        their own one
+     */
+    public AsyncEventBus(Executor defaultExecutor) {
+        this.defaultExecutor = Objects.requireNonNull(defaultExecutor, "Executor must not be null.");
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        return subscribe(eventType, subscriber, defaultExecutor);
+    }
+
+    /**
+     * Subscribe to an event type and receive events using the specified executor.
+     * All subscriptions of the same subscriber share a single mailbox to preserve the
+     * delivery order, so they must use the same executor and mailbox kind.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param subscriber the subscriber which will consume the events.
+     * @param executor   the executor that will be used to deliver the events.
+     * @param <E>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     * @throws IllegalStateException if the subscriber is already subscribed using
+     *                               another executor or mailbox kind.
+     */
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType,
+                                                    Consumer<E> subscriber,
+                                                    Executor executor) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        Objects.requireNonNull(executor, "Executor must not be null.");
+
+        return register(eventType, subscriber, SerialMailbox.class, executor,
+                () -> new SerialMailbox<>(subscriber, executor));
+    }
+
+    /**
+     * @see #subscribeConflated(Class, Function, Consumer, Executor)
+     */
+    public <E extends Event> Subscription subscribeConflated(Class<? extends E> eventType,
+                                                             Function<? super E, ?> keyExtractor,
+                                                             Consumer<E> subscriber) {
+        return subscribeConflated(eventType, keyExtractor, subscriber, defaultExecutor);
+    }
+
+    /**
+     * Subscribe to an event type, so that only the latest event per conflation key is
+     * delivered. If a new event arrives while the previous one with the same key is still
+     * pending, the previous event is discarded. If the subscriber is already subscribed
+     * to some other event type, its existing conflating mailbox and key extractor are reused.
+     *
+     * @param eventType    the event type, can be a super class of all events to subscribe.
+     * @param keyExtractor the function that returns conflation key for the event,
+     *                     e.g. {@link #CONFLATE_BY_TYPE} or {@link #CONFLATE_BY_SOURCE}.
+     * @param subscriber   the subscriber which will consume the events.
+     * @param executor     the executor that will be used to deliver the events.
+     * @param <E>          the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     * @throws IllegalStateException if the subscriber is already subscribed using
+     *                               another executor or mailbox kind.
+     */
+    public <E extends Event> Subscription subscribeConflated(Class<? extends E> eventType,
+                                                             Function<? super E, ?> keyExtractor,
+                                                             Consumer<E> subscriber,
+                                                             Executor executor) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(keyExtractor, "Key extractor must not be null.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        Objects.requireNonNull(executor, "Executor must not be null.");
+
+        return register(eventType, subscriber, ConflatingMailbox.class, executor,
+                () -> new ConflatingMailbox<>(subscriber, executor, keyExtractor));
+    }
+
+    /**
+     * @see #subscribeBounded(Class, Consumer, int, OverflowPolicy, Executor)
+     */
+    public <E extends Event> BoundedSubscription subscribeBounded(Class<? extends E> eventType,
+                                                                  Consumer<E> subscriber,
+                                                                  int capacity,
+                                                                  OverflowPolicy overflowPolicy) {
+        return subscribeBounded(eventType, subscriber, capacity, overflowPolicy, defaultExecutor);
+    }
+
+    /**
+     * Subscribe to an event type using a bounded mailbox. Once the mailbox is full,
+     * new events are handled according to the overflow policy. Note that
+     * {@link OverflowPolicy#BLOCK} can lead to a deadlock if the subscriber publishes
+     * events itself, or if it's called in the publisher thread.
+     *
+     * @param eventType      the event type, can be a super class of all events to subscribe.
+     * @param subscriber     the subscriber which will consume the events.
+     * @param capacity       the maximum number of pending events.
+     * @param overflowPolicy the action to take when the mailbox is full.
+     * @param executor       the executor that will be used to deliver the events.
+     * @param <E>            the event type class.
+     * @return the subscription handle that can be used to unsubscribe and to monitor the mailbox.
+     * @throws IllegalStateException if the subscriber is already subscribed using
+     *                               another executor or an unbounded mailbox.
+     */
+    public <E extends Event> BoundedSubscription subscribeBounded(Class<? extends E> eventType,
+                                                                  Consumer<E> subscriber,
+                                                                  int capacity,
+                                                                  OverflowPolicy overflowPolicy,
+                                                                  Executor executor) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        Objects.requireNonNull(overflowPolicy, "Overflow policy must not be null.");
+        Objects.requireNonNull(executor, "Executor must not be null.");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+
+        Registration<E> registration = register(eventType, subscriber, BoundedMailbox.class, executor,
+                () -> new BoundedMailbox<>(subscriber, executor, capacity, overflowPolicy));
+        return new MailboxSubscription(registration, (BoundedMailbox<?>) registration.target);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
+        delegate.unsubscribe(subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        delegate.unsubscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void publish(E event) {
+        delegate.publish(event);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        return delegate.request(event, replyType, timeout);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void publishAll(Collection<? extends E> events) {
+        delegate.publishAll(events);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private <E extends Event> Registration<E> register(Class<? extends E> eventType,
+                                                       Consumer<E> subscriber,
+                                                       Class<?> mailboxType,
+                                                       Executor executor,
+                                                       Supplier<SerialMailbox<E>> mailboxFactory) {
+        // mailbox is shared between all registrations of the same subscriber
+        // and closed when the last of them is removed
+        SerialMailbox<E> mailbox = (SerialMailbox<E>) mailboxes.compute(subscriber, (k, existing) -> {
+            if (existing != null && (existing.getClass() != mailboxType || existing.executor != executor)) {
+                throw new IllegalStateException("Subscriber is already subscribed using another executor or mailbox.");
+            }
+            SerialMailbox<?> result = existing != null ? existing : mailboxFactory.get();
+            result.references++;
+            return result;
+        });
+
+        Registration<E> registration = new Registration<>(delegate, eventType, subscriber, mailbox)
+                .onRemove(() -> release(subscriber));
+        Registration<E> registered = delegate.register(registration);
+        if (registered != registration) {
+            release(subscriber);
+        }
+        return registered;
+    }
+
+    private void release(Consumer<?> subscriber) {
+        mailboxes.computeIfPresent(subscriber, (k, mailbox) -> {
+            if (--mailbox.references > 0) { return mailbox; }
+            mailbox.close();
+            return null;
+        });
+    }
+
+    private record MailboxSubscription(Subscription registration, BoundedMailbox<?> mailbox)
+            implements BoundedSubscription {
+
+        @Override
+        public void cancel() {
+            registration.cancel();
+        }
+
+        @Override
+        public int getQueueSize() {
+            return mailbox.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return mailbox.capacity();
+        }
+
+        @Override
+        public long getDroppedCount() {
+            return mailbox.droppedCount();
+        }
+    }
+}
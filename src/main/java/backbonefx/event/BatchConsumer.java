@@ -0,0 +1,29 @@
+package backbonefx.event;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber that is able to consume multiple events at once. Event bus implementations
+ * that support batching deliver all pending events using a single {@link #acceptBatch(List)}
+ * call. Others just call {@link #accept(Object)} for each event.
+ *
+ * @param <E> the event type class.
+ */
+@FunctionalInterface
+public interface BatchConsumer<E> extends Consumer<E> {
+
+    /**
+     * Consumes a batch of events. The list is only valid during the call and must
+     * not be stored or modified.
+     *
+     * @param events the events in publishing order, never empty.
+     */
+    void acceptBatch(List<E> events);
+
+    /** Consumes a single event as a batch of one. */
+    @Override
+    default void accept(E event) {
+        acceptBatch(List.of(event));
+    }
+}
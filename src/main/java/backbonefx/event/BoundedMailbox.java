@@ -0,0 +1,76 @@
+package backbonefx.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/** Mailbox with a fixed capacity, which applies the overflow policy when it's full. */
+final class BoundedMailbox<E> extends SerialMailbox<E> {
+
+    private final BlockingQueue<E> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder dropped = new LongAdder();
+
+    BoundedMailbox(Consumer<E> subscriber, Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+        super(subscriber, executor);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    protected void enqueue(E event) {
+        if (queue.offer(event)) { return; }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+            case DROP_NEWEST -> dropped.increment();
+            case FAIL -> {
+                dropped.increment();
+                throw new EventOverflowException("Subscriber queue is full: " + subscriber);
+            }
+        }
+    }
+
+    @Override
+    protected E dequeue() {
+        return queue.poll();
+    }
+
+    @Override
+    protected boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    protected void discardPending() {
+        queue.clear();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    int capacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+}
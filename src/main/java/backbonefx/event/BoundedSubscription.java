@@ -0,0 +1,17 @@
+package backbonefx.event;
+
+/**
+ * Subscription backed by a bounded event queue. Provides queue statistics to find
+ * subscribers that can't keep up with the publishing rate.
+ */
+public interface BoundedSubscription extends Subscription {
+
+    /** Returns the number of events waiting to be delivered. */
+    int getQueueSize();
+
+    /** Returns the maximum number of events that can wait to be delivered. */
+    int getCapacity();
+
+    /** Returns the total number of events discarded due to the queue overflow. */
+    long getDroppedCount();
+}
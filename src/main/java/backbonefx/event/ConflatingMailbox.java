@@ -0,0 +1,57 @@
+package backbonefx.event;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mailbox that only keeps the latest pending event per conflation key. A newer event
+ * replaces the pending one with the same key and takes its place in the delivery order,
+ * i.e. keys are delivered in the order their first pending event was published.
+ */
+final class ConflatingMailbox<E> extends SerialMailbox<E> {
+
+    private static final Object NULL_KEY = new Object();
+
+    private final Function<? super E, ?> keyExtractor;
+    private final Map<Object, E> latest = new ConcurrentHashMap<>();
+    private final Queue<Object> keys = new ConcurrentLinkedQueue<>();
+
+    ConflatingMailbox(Consumer<E> subscriber, Executor executor, Function<? super E, ?> keyExtractor) {
+        super(subscriber, executor);
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    protected void enqueue(E event) {
+        Object key = Objects.requireNonNullElse(keyExtractor.apply(event), NULL_KEY);
+        // The key is only queued when there's no pending event for it. If the previous
+        // event is being taken concurrently, either this event is returned instead of it,
+        // or the key is absent, and so it will be queued again.
+        if (latest.put(key, event) == null) {
+            keys.offer(key);
+        }
+    }
+
+    @Override
+    protected E dequeue() {
+        Object key = keys.poll();
+        return key != null ? latest.remove(key) : null;
+    }
+
+    @Override
+    protected boolean hasPending() {
+        return !keys.isEmpty();
+    }
+
+    @Override
+    protected void discardPending() {
+        keys.clear();
+        latest.clear();
+    }
+}
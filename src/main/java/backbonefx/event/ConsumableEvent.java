@@ -0,0 +1,19 @@
+package backbonefx.event;
+
+/**
+ * Event that can be consumed by a subscriber to stop its further propagation.
+ * Once consumed, the event isn't delivered to the remaining subscribers, which are
+ * called in priority order. Consuming only affects subscribers that are called
+ * synchronously, events that are already queued for asynchronous delivery are
+ * delivered regardless.
+ *
+ * @see AbstractConsumableEvent
+ */
+public interface ConsumableEvent extends Event {
+
+    /** Marks the event as consumed. */
+    void consume();
+
+    /** Checks whether the event has been consumed. */
+    boolean isConsumed();
+}
@@ -0,0 +1,101 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Delivers only the latest event once no new events were published for the specified
+ * quiet period. Useful for subscribers that do expensive recomputations on text change
+ * or resize events. Events are delivered in the common fork-join pool, unless
+ * {@link #onFxThread()} is specified.
+ */
+public final class Debounce implements EventOperator {
+
+    private final long delayNanos;
+    private final @Nullable Executor executor;
+
+    private Debounce(long delayNanos, @Nullable Executor executor) {
+        this.delayNanos = delayNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates new debounce operator.
+     *
+     * @param quietPeriod the time that must pass after the latest event before it's delivered.
+     */
+    public static Debounce of(Duration quietPeriod) {
+        Objects.requireNonNull(quietPeriod, "Quiet period must not be null.");
+        if (quietPeriod.isNegative() || quietPeriod.isZero()) {
+            throw new IllegalArgumentException("Quiet period must be positive.");
+        }
+        return new Debounce(quietPeriod.toNanos(), null);
+    }
+
+    /** Returns the same operator that delivers events in the FX application thread. */
+    public Debounce onFxThread() {
+        return new Debounce(delayNanos, TimedConsumer.FX_THREAD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E> Consumer<E> apply(Consumer<E> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        return new Debouncer<>(subscriber, executor, delayNanos);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static final class Debouncer<E> extends TimedConsumer<E> {
+
+        private final long delayNanos;
+        private @Nullable E latest; // guarded by this
+        private long deadline; // guarded by this
+
+        Debouncer(Consumer<E> subscriber, @Nullable Executor executor, long delayNanos) {
+            super(subscriber, executor);
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public synchronized void accept(E event) {
+            if (isCancelled()) { return; }
+            latest = event;
+            deadline = System.nanoTime() + delayNanos;
+            // instead of rescheduling on every event, the fired task
+            // checks the deadline and reschedules itself if needed
+            if (!isScheduled()) {
+                schedule(delayNanos);
+            }
+        }
+
+        @Override
+        public void run() {
+            E event;
+            synchronized (this) {
+                fired();
+                if (isCancelled()) { return; }
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    schedule(remaining);
+                    return;
+                }
+                event = latest;
+                latest = null;
+            }
+            if (event != null) {
+                deliver(event);
+            }
+        }
+
+        @Override
+        public synchronized void cancel() {
+            super.cancel();
+            latest = null;
+        }
+    }
+}
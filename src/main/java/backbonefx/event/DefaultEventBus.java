@@ -1,44 +1,406 @@
 package backbonefx.event;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Default event bus implementation. Events are published in channels distinguished
  * by event type. Channels can be grouped using an event type hierarchy.
+ * <p>
+ * Subscribers are kept in concurrent maps per event type, so subscribing and cancelling
+ * only touch the map of a single type. They're resolved once per concrete event class and
+ * cached as a flat array, so publishing an event of an already known class doesn't involve
+ * any type matching. Each change discards the whole cache atomically, thus publishing never
+ * blocks and never uses a table that was resolved before the change. Subscribers are called
+ * in the order of their {@link #subscribe(Class, int, Consumer) priority}, and then in the
+ * order they were subscribed.
+ * A subscriber can stop further propagation of a {@link ConsumableEvent} by consuming it.
+ * <p>
+ * Subscribers that update the UI can be registered with {@link #subscribeOnFxThread(Class, Consumer)}.
+ * Events for such subscribers published outside the JavaFX application thread are queued
+ * and delivered in batches, using a single {@code Platform.runLater()} call per batch.
+ * Each batch is limited by the time budget, the remaining events are delivered by
+ * the next one, so the UI stays responsive even under a burst of events.
+ * <p>
+ * Subscribers registered with {@link #subscribeWeakly(Object, Class, BiConsumer)} don't
+ * prevent their owner from being garbage collected. Such registrations are removed
+ * automatically once the owner is gone, so views that forget to unsubscribe don't leak.
+ * <p>
+ * Subscribers that are only interested in events of a particular {@link EventSource}
+ * should use {@link #subscribe(Class, EventSource, Consumer)}. Such subscribers are indexed
+ * by the source ID, so they aren't even considered for events sent by other sources.
+ * Source filtered subscribers are merged with the unfiltered ones in the same order.
+ * <p>
+ * Event types that represent a state, e.g. connection status or current selection, can
+ * be made sticky with {@link #makeSticky(Class, boolean)}. The event bus keeps the latest
+ * event of such type (and optionally per event source) and delivers it to each new
+ * subscriber immediately on subscription.
+ * <p>
+ * {@link #publishAll(Collection)} resolves subscribers once per run of events of the same
+ * class and delivers the whole run to each subscriber before moving to the next one.
+ * Subscribers that implement {@link BatchConsumer} receive the run as a single list.
+ * <p>
+ * The event bus can be split into scopes with {@link #createChild()}, e.g. one child per editor
+ * tab. Events published to a child are only matched against the subscribers of that child
+ * (and its descendants), while events published to a parent propagate down to all children.
+ * Closing a child drops all of its subscriptions at once.
+ * <p>
+ * Subscribers of frequent events that trigger expensive work can limit the delivery rate
+ * with {@link Debounce} or {@link Throttle} operators, see
+ * {@link #subscribeWith(Class, Consumer, EventOperator)}.
+ * <p>
+ * Publish counters and subscriber latency histograms can be collected by enabling
+ * {@link #enableMetrics(Duration, Consumer) metrics}. When disabled, the only cost is a field
+ * read per published event and per subscriber call.
+ * <p>
+ * {@link #request(AbstractEvent, Class, Duration)} publishes an event and returns a future
+ * that is completed by the first {@link ReplyEvent} that refers to it. The reply can be
+ * published to any event bus of the same hierarchy, e.g. to the child that handled the request.
  */
 @SuppressWarnings("unchecked")
-public final class DefaultEventBus implements EventBus {
+public final class DefaultEventBus implements EventBus, AutoCloseable {
+
+    /** The priority of subscribers that don't specify one. */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final Registration<?>[] NO_SUBSCRIBERS = new Registration<?>[0];
+    private static final DefaultEventBus[] NO_CHILDREN = new DefaultEventBus[0];
+    private static final Comparator<Registration<?>> DELIVERY_ORDER = Comparator
+            .<Registration<?>>comparingInt(registration -> registration.priority).reversed()
+            .thenComparingLong(registration -> registration.order);
+    private static final DispatchTable[] NO_DISPATCH_TABLES = new DispatchTable[0];
+    private static final DispatchTable EMPTY_DISPATCH_TABLE =
+            new DispatchTable(NO_SUBSCRIBERS, Map.of(), Stickiness.NONE, false, false);
 
-    private final Map<Class<?>, Set<Consumer<?>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicReference<Registry> registry = new AtomicReference<>(new Registry(new ConcurrentHashMap<>()));
+    private final Map<Class<?>, Boolean> stickyTypes = new ConcurrentHashMap<>();
+    private final Map<Object, Event> stickyEvents = new ConcurrentHashMap<>();
+    // shared by the whole hierarchy, so that a reply can be published to any of its buses
+    private final Map<UUID, PendingReply> pendingReplies;
+    private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+    private final FxDeliveryQueue fxDeliveryQueue;
+    private final DefaultEventBus parent;
+    private volatile DefaultEventBus[] children = NO_CHILDREN;
+    private volatile boolean closed;
+    private volatile @Nullable EventBusMetrics metrics;
 
     /**
      * Creates new {@link EventBus} instance.
      * If you want to use global event bus go with singleton method instead.
      */
-    public DefaultEventBus() { }
+    public DefaultEventBus() {
+        this(FxDeliveryQueue.DEFAULT_TIME_BUDGET);
+    }
+
+    /**
+     * Creates new {@link EventBus} instance with the specified time budget for delivering
+     * queued events to the FX thread subscribers.
+     *
+     * @param fxTimeBudget the maximum time a single batch of queued events can occupy
+     *                     the FX application thread
+     */
+    public DefaultEventBus(Duration fxTimeBudget) {
+        this(new FxDeliveryQueue(Objects.requireNonNull(fxTimeBudget, "Time budget must not be null.")));
+    }
+
+    DefaultEventBus(FxDeliveryQueue fxDeliveryQueue) {
+        this(fxDeliveryQueue, null);
+    }
+
+    private DefaultEventBus(FxDeliveryQueue fxDeliveryQueue, DefaultEventBus parent) {
+        this.fxDeliveryQueue = fxDeliveryQueue;
+        this.parent = parent;
+        this.pendingReplies = parent != null ? parent.pendingReplies : new ConcurrentHashMap<>();
+        this.metrics = parent != null ? parent.metrics : null;
+    }
 
     ///////////////////////////////////////////////////////////////////////////
 
     /** {@inheritDoc} */
     @Override
-    public <E extends Event> void subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        return register(new Registration<>(this, eventType, subscriber, subscriber));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The subscription can be removed by {@link #unsubscribe(Consumer)} as well.
+     */
+    @Override
+    public <E extends Event> Subscription subscribeWith(Class<? extends E> eventType,
+                                                        Consumer<E> subscriber,
+                                                        EventOperator operator) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        Objects.requireNonNull(operator, "Operator must not be null.");
+
+        Consumer<E> target = operator.apply(subscriber);
+        Registration<E> registration = new Registration<>(this, eventType, subscriber, target);
+        if (target instanceof Subscription operatorSubscription) {
+            registration.onRemove(operatorSubscription::cancel);
+        }
+
+        Registration<E> registered = register(registration);
+        if (registered != registration) {
+            registration.removed();
+        }
+        return registered;
+    }
+
+    /**
+     * Subscribe to an event type with the specified priority. Subscribers with higher
+     * priority are called first, subscribers with the same priority are called in the
+     * order they were subscribed. Combined with {@link ConsumableEvent}, this allows
+     * a subscriber to intercept an event before the others.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param priority   the priority, {@link #DEFAULT_PRIORITY} for regular subscribers.
+     * @param subscriber the subscriber which will consume the events.
+     * @param <E>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     */
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType,
+                                                    int priority,
+                                                    Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        return register(new Registration<>(this, eventType, subscriber, subscriber).withPriority(priority));
+    }
+
+    /**
+     * Subscribe to events of the specified type sent by the specified event source,
+     * with the specified priority.
+     *
+     * @see #subscribe(Class, int, Consumer)
+     * @see #subscribe(Class, EventSource, Consumer)
+     */
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType,
+                                                    EventSource source,
+                                                    int priority,
+                                                    Consumer<E> subscriber) {
         Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(source, "Event source must not be null.");
         Objects.requireNonNull(subscriber, "Subscriber must not be null.");
 
-        Set<Consumer<?>> eventSubscribers = getOrCreateSubscribers(eventType);
-        eventSubscribers.add(subscriber);
+        return register(new Registration<>(this, eventType, subscriber, subscriber)
+                .filterBySource(source)
+                .withPriority(priority)
+        );
+    }
+
+    /**
+     * Subscribe to events of the specified type sent by the specified event source.
+     * Only applies to the events that extend {@link AbstractEvent}.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param source     the event source to receive events from.
+     * @param subscriber the subscriber which will consume the events.
+     * @param <E>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     */
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType,
+                                                    EventSource source,
+                                                    Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(source, "Event source must not be null.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        return register(new Registration<>(this, eventType, subscriber, subscriber).filterBySource(source));
+    }
+
+    /**
+     * Subscribe to an event type. Events will always be delivered in the JavaFX application
+     * thread, in the same order they were published.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param subscriber the subscriber which will consume the events.
+     * @param <E>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     */
+    public <E extends Event> Subscription subscribeOnFxThread(Class<? extends E> eventType, Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        return register(new Registration<>(this, eventType, subscriber, subscriber).onFxThread());
+    }
+
+    /**
+     * Subscribe to an event type on behalf of the owner object. The event bus only keeps
+     * a weak reference to the owner, and the subscription is cancelled automatically
+     * after the owner has been garbage collected.
+     * <p>
+     * The owner is passed to the subscriber as the first argument, so the subscriber itself
+     * must not capture it, otherwise the owner will be strongly reachable. Using a method
+     * reference of the owner class is the simplest way to do it:
+     * <pre>{@code
+     * eventBus.subscribeWeakly(this, FooEvent.class, MyView::onFooEvent);
+     * }</pre>
+     * Weak subscriptions can't be removed using {@link #unsubscribe(Consumer)}, use
+     * the returned subscription handle instead.
+     *
+     * @param owner      the object that determines the subscription lifetime.
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param subscriber the subscriber which will consume the events.
+     * @param <O>        the owner type class.
+     * @param <E>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     */
+    public <O, E extends Event> Subscription subscribeWeakly(O owner,
+                                                             Class<? extends E> eventType,
+                                                             BiConsumer<? super O, E> subscriber) {
+        Objects.requireNonNull(owner, "Owner must not be null.");
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        WeakSubscriber<O, E> weakSubscriber = new WeakSubscriber<>(owner, subscriber, collectedOwners);
+        Registration<E> registration = register(
+                new Registration<>(this, eventType, weakSubscriber, weakSubscriber)
+        );
+        weakSubscriber.registration = registration;
+        // the owner must stay reachable until the registration is visible to the subscriber
+        Reference.reachabilityFence(owner);
+        return registration;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pending requests are kept in a table keyed by the request event ID, so there is no
+     * subscription per request. Timeouts are tracked by a shared timer wheel with 10ms
+     * precision. Timeout and cancellation complete the future in the timer thread or in
+     * the cancelling thread respectively, so dependent actions should be short or async.
+     *
+     * @throws IllegalStateException if a request with the same event ID is already pending.
+     */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        CompletableFuture<R> future = expectReply(event, replyType, timeout);
+        publish(event);
+        return future;
+    }
+
+    /**
+     * Registers the pending request without publishing the event. Used by the event buses
+     * that deliver events through this one, but publish them in their own way.
+     *
+     * @see #request(AbstractEvent, Class, Duration)
+     */
+    <R extends ReplyEvent> CompletableFuture<R> expectReply(AbstractEvent event,
+                                                           Class<R> replyType,
+                                                           Duration timeout) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        Objects.requireNonNull(replyType, "Reply type must be specified.");
+        Objects.requireNonNull(timeout, "Timeout must not be null.");
+
+        UUID requestId = event.getId();
+        CompletableFuture<R> future = new CompletableFuture<>();
+        PendingReply pendingReply =
+                new PendingReply(replyType, (CompletableFuture<Object>) (CompletableFuture<?>) future);
+        if (pendingReplies.putIfAbsent(requestId, pendingReply) != null) {
+            throw new IllegalStateException("Request is already pending: " + requestId);
+        }
+
+        TimerWheel.Timeout timer = TimerWheel.SHARED.schedule(() -> {
+            if (pendingReplies.remove(requestId, pendingReply)) {
+                future.completeExceptionally(new TimeoutException("No reply received within " + timeout));
+            }
+        }, timeout.toNanos());
+
+        // releases the table entry and the timer, whichever way the future is completed
+        future.whenComplete((reply, error) -> {
+            pendingReplies.remove(requestId, pendingReply);
+            timer.cancel();
+        });
+        return future;
+    }
+
+    /**
+     * Enables collecting metrics for this event bus and its children, discarding the previously
+     * collected ones, if any. Children created later share the same metrics.
+     *
+     * @param slowThreshold         the invocation time after which a subscriber is reported as slow,
+     *                              or null to disable slow subscriber detection.
+     * @param slowSubscriberHandler the handler that is called in the publisher thread for each
+     *                              slow subscriber invocation, or null.
+     * @return the metrics that can be used to obtain the collected data.
+     */
+    public EventBusMetrics enableMetrics(@Nullable Duration slowThreshold,
+                                         @Nullable Consumer<EventBusMetrics.SlowInvocation> slowSubscriberHandler) {
+        EventBusMetrics newMetrics = new EventBusMetrics(slowThreshold, slowSubscriberHandler);
+        setMetrics(newMetrics);
+        return newMetrics;
+    }
+
+    /** Stops collecting metrics for this event bus and its children. */
+    public void disableMetrics() {
+        setMetrics(null);
+    }
+
+    /**
+     * Makes the event type sticky. The latest published event of this type (or any of its
+     * subclasses) is stored and delivered to new subscribers immediately on subscription.
+     * The event type is sticky in all children as well. Note that an event published
+     * concurrently with subscribing can be delivered twice.
+     *
+     * @param eventType the event type, can be a super class of all events to keep.
+     * @param perSource if true, the latest event is kept for each event source separately,
+     *                  otherwise only the latest event of each event class is kept.
+     */
+    public void makeSticky(Class<? extends Event> eventType, boolean perSource) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        stickyTypes.put(eventType, perSource);
+        invalidateStickiness(eventType);
+    }
+
+    /**
+     * Discards all stored events of the specified type (or any of its subclasses) and stops
+     * storing new ones, if the event type was made sticky before.
+     *
+     * @param eventType the event type, can be a super class of all events to discard.
+     */
+    public void removeSticky(Class<? extends Event> eventType) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        stickyTypes.remove(eventType);
+        invalidateStickiness(eventType);
     }
 
     /** {@inheritDoc} */
     @Override
     public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
         if (subscriber == null) { return; }
-        subscribers.values().forEach(eventSubscribers -> eventSubscribers.remove(subscriber));
+        expungeCollectedSubscribers();
+
+        for (Map<Object, Registration<?>> eventSubscribers : registry.get().subscribers.values()) {
+            removeAll(eventSubscribers, subscriber);
+        }
     }
 
     /** {@inheritDoc} */
@@ -46,39 +408,660 @@ public final class DefaultEventBus implements EventBus {
     public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
         Objects.requireNonNull(eventType, "Event type must be specified.");
         Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        expungeCollectedSubscribers();
 
-        subscribers.keySet().stream()
-                .filter(eventType::isAssignableFrom)
-                .map(subscribers::get)
-                .forEach(eventSubscribers -> eventSubscribers.remove(subscriber));
+        for (Map.Entry<Class<?>, Map<Object, Registration<?>>> entry : registry.get().subscribers.entrySet()) {
+            if (eventType.isAssignableFrom(entry.getKey())) {
+                removeAll(entry.getValue(), subscriber);
+            }
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public <E extends Event> void publish(E event) {
         Objects.requireNonNull(event, "Event must not be null.");
+        dispatch(event, null);
+    }
+
+    /**
+     * Publishes the event to this event bus and its children. The event is only counted
+     * if it wasn't counted by the parent already, i.e. if the metrics aren't shared.
+     */
+    private <E extends Event> void dispatch(E event, @Nullable EventBusMetrics counted) {
+        DispatchTable dispatchTable = getDispatchTable(event.getClass());
+        if (dispatchTable.stickiness != Stickiness.NONE) {
+            storeSticky(event, dispatchTable.stickiness);
+        }
+
+        if (dispatchTable.reply && !pendingReplies.isEmpty()) {
+            completeRequest((ReplyEvent) event);
+        }
 
-        Class<?> eventType = event.getClass();
-        subscribers.keySet().stream()
-                .filter(type -> type.isAssignableFrom(eventType))
-                .flatMap(type -> subscribers.get(type).stream())
-                .forEach(subscriber -> publish(event, (Consumer<E>) subscriber));
+        EventBusMetrics metrics = this.metrics;
+        if (metrics != null && metrics != counted) {
+            metrics.recordPublish(event.getClass(), 1);
+        }
+
+        Registration<?>[] filtered = null;
+        if (!dispatchTable.bySource.isEmpty()
+                && event instanceof AbstractEvent abstractEvent
+                && abstractEvent.getSource() != null) {
+            filtered = dispatchTable.bySource.get(abstractEvent.getSource().id());
+        }
+
+        EventOverflowException overflow =
+                deliver(event, dispatchTable.registrations, filtered, dispatchTable.consumable);
+        if (!dispatchTable.consumable || !((ConsumableEvent) event).isConsumed()) {
+            for (DefaultEventBus child : children) {
+                try {
+                    child.dispatch(event, metrics);
+                } catch (EventOverflowException e) {
+                    if (overflow == null) { overflow = e; }
+                }
+            }
+        }
+
+        if (overflow != null) {
+            throw overflow;
+        }
+    }
+
+    /**
+     * Delivers the event to both unfiltered and source filtered registrations, merging
+     * them in priority order. Stops once the event has been consumed. Returns the first
+     * overflow, if any subscriber queue was full.
+     */
+    private <E extends Event> @Nullable EventOverflowException deliver(E event,
+                                                                      Registration<?>[] registrations,
+                                                                      Registration<?> @Nullable [] filtered,
+                                                                      boolean consumable) {
+        EventOverflowException overflow = null;
+        int filteredLength = filtered != null ? filtered.length : 0;
+        int i = 0;
+        int j = 0;
+        while (i < registrations.length || j < filteredLength) {
+            Registration<?> registration;
+            if (j == filteredLength
+                    || (i < registrations.length && DELIVERY_ORDER.compare(registrations[i], filtered[j]) <= 0)) {
+                registration = registrations[i++];
+            } else {
+                registration = filtered[j++];
+            }
+
+            EventOverflowException e = publish(event, (Registration<E>) registration);
+            if (overflow == null) { overflow = e; }
+            if (consumable && ((ConsumableEvent) event).isConsumed()) {
+                break;
+            }
+        }
+        return overflow;
     }
 
-    private <E> Set<Consumer<?>> getOrCreateSubscribers(Class<E> eventType) {
-        Set<Consumer<?>> eventSubscribers = subscribers.get(eventType);
-        if (eventSubscribers == null) {
-            eventSubscribers = new CopyOnWriteArraySet<>();
-            subscribers.put(eventType, eventSubscribers);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Consecutive events of the same class are delivered as a run: each subscriber
+     * receives all events of the run before the next subscriber is called. Thus,
+     * the order of events is preserved per subscriber, but not across subscribers.
+     */
+    @Override
+    public <E extends Event> void publishAll(Collection<? extends E> events) {
+        Objects.requireNonNull(events, "Events must not be null.");
+
+        List<E> run = new ArrayList<>(events);
+        for (E event : run) {
+            Objects.requireNonNull(event, "Event must not be null.");
+        }
+
+        int start = 0;
+        while (start < run.size()) {
+            Class<?> eventClass = run.get(start).getClass();
+            int end = start + 1;
+            while (end < run.size() && run.get(end).getClass() == eventClass) {
+                end++;
+            }
+            publishRun(run.subList(start, end), null);
+            start = end;
         }
-        return eventSubscribers;
     }
 
-    private <E extends Event> void publish(E event, Consumer<E> subscriber) {
+    private <E extends Event> void publishRun(List<E> events, @Nullable EventBusMetrics counted) {
+        EventOverflowException overflow = null;
+        DispatchTable dispatchTable = getDispatchTable(events.get(0).getClass());
+        if (dispatchTable.consumable) {
+            // each event can stop at a different subscriber, so batching doesn't apply
+            for (E event : events) {
+                try {
+                    dispatch(event, counted);
+                } catch (EventOverflowException e) {
+                    if (overflow == null) { overflow = e; }
+                }
+            }
+            if (overflow != null) {
+                throw overflow;
+            }
+            return;
+        }
+        if (dispatchTable.stickiness != Stickiness.NONE) {
+            for (E event : events) {
+                storeSticky(event, dispatchTable.stickiness);
+            }
+        }
+
+        if (dispatchTable.reply && !pendingReplies.isEmpty()) {
+            for (E event : events) {
+                completeRequest((ReplyEvent) event);
+            }
+        }
+
+        EventBusMetrics metrics = this.metrics;
+        if (metrics != null && metrics != counted) {
+            metrics.recordPublish(events.get(0).getClass(), events.size());
+        }
+
+        Registration<?>[] registrations = dispatchTable.registrations;
+        if (!dispatchTable.bySource.isEmpty()) {
+            registrations = withSourceFiltered(registrations, dispatchTable.bySource, events);
+        }
+
+        List<E> batch = Collections.unmodifiableList(events);
+        for (Registration<?> registration : registrations) {
+            if (registration.sourceId != null) {
+                for (E event : events) {
+                    if (event instanceof AbstractEvent abstractEvent
+                            && abstractEvent.getSource() != null
+                            && registration.sourceId.equals(abstractEvent.getSource().id())) {
+                        EventOverflowException e = publish(event, (Registration<E>) registration);
+                        if (overflow == null) { overflow = e; }
+                    }
+                }
+                continue;
+            }
+
+            if (!registration.fxBound && registration.target instanceof BatchConsumer<?> batchConsumer) {
+                long start = metrics != null ? System.nanoTime() : 0L;
+                try {
+                    try {
+                        ((BatchConsumer<E>) batchConsumer).acceptBatch(batch);
+                    } finally {
+                        if (metrics != null) {
+                            metrics.recordInvocation(registration, events.get(0).getClass(), System.nanoTime() - start);
+                        }
+                    }
+                } catch (EventOverflowException e) {
+                    if (overflow == null) { overflow = e; }
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+                continue;
+            }
+
+            for (E event : events) {
+                EventOverflowException e = publish(event, (Registration<E>) registration);
+                if (overflow == null) { overflow = e; }
+            }
+        }
+
+        for (DefaultEventBus child : children) {
+            try {
+                child.publishRun(events, metrics);
+            } catch (EventOverflowException e) {
+                if (overflow == null) { overflow = e; }
+            }
+        }
+
+        if (overflow != null) {
+            throw overflow;
+        }
+    }
+
+    /**
+     * Merges the unfiltered registrations with the ones filtered by the sources of the events,
+     * in the delivery order.
+     */
+    private static Registration<?>[] withSourceFiltered(Registration<?>[] registrations,
+                                                        Map<String, Registration<?>[]> bySource,
+                                                        List<? extends Event> events) {
+        Set<String> sourceIds = new HashSet<>();
+        List<Registration<?>> merged = null;
+        for (Event event : events) {
+            if (!(event instanceof AbstractEvent abstractEvent) || abstractEvent.getSource() == null) { continue; }
+            String sourceId = abstractEvent.getSource().id();
+            Registration<?>[] filtered = bySource.get(sourceId);
+            if (filtered != null && sourceIds.add(sourceId)) {
+                if (merged == null) { merged = new ArrayList<>(Arrays.asList(registrations)); }
+                merged.addAll(Arrays.asList(filtered));
+            }
+        }
+        if (merged == null) { return registrations; }
+
+        merged.sort(DELIVERY_ORDER);
+        return merged.toArray(NO_SUBSCRIBERS);
+    }
+
+    /**
+     * Creates a child event bus. Events published to the child are only delivered to its own
+     * subscribers, while events published to this event bus are delivered to the subscribers
+     * of all its children as well.
+     * <p>
+     * The child shares the FX delivery queue, the metrics and the sticky event types with this
+     * event bus. New subscribers of the child receive the sticky events published to the child,
+     * or to this event bus if there are none. The child must be closed when the scope it belongs
+     * to is disposed, otherwise it stays reachable from the parent.
+     *
+     * @return the child event bus.
+     * @throws IllegalStateException if this event bus is closed.
+     */
+    public DefaultEventBus createChild() {
+        DefaultEventBus child;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Event bus is closed.");
+            }
+            // created under the lock, so that it can't miss the metrics being replaced
+            child = new DefaultEventBus(fxDeliveryQueue, this);
+            DefaultEventBus[] newChildren = Arrays.copyOf(children, children.length + 1);
+            newChildren[children.length] = child;
+            children = newChildren;
+        }
+        return child;
+    }
+
+    /**
+     * Detaches this event bus from its parent, closes all children and drops all subscriptions.
+     * A closed event bus doesn't accept new subscribers and doesn't receive events from its parent.
+     */
+    @Override
+    public void close() {
+        DefaultEventBus[] closedChildren;
+        synchronized (this) {
+            if (closed) { return; }
+            closed = true;
+            closedChildren = children;
+            children = NO_CHILDREN;
+        }
+
+        if (parent != null) {
+            parent.removeChild(this);
+        }
+
+        for (DefaultEventBus child : closedChildren) {
+            child.close();
+        }
+
+        // a single swap makes all subscribers disappear at once
+        Registry closedRegistry = registry.getAndSet(new Registry(new ConcurrentHashMap<>()));
+        for (Map<Object, Registration<?>> eventSubscribers : closedRegistry.subscribers.values()) {
+            for (Registration<?> registration : eventSubscribers.values()) {
+                if (closedRegistry.remove(registration)) {
+                    release(registration);
+                }
+            }
+        }
+        stickyEvents.clear();
+    }
+
+    private synchronized void removeChild(DefaultEventBus child) {
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] == child) {
+                DefaultEventBus[] newChildren = new DefaultEventBus[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, i);
+                System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+                children = newChildren;
+                return;
+            }
+        }
+    }
+
+    private synchronized void setMetrics(@Nullable EventBusMetrics newMetrics) {
+        metrics = newMetrics;
+        if (newMetrics != null) {
+            for (Map<Object, Registration<?>> eventSubscribers : registry.get().subscribers.values()) {
+                for (Registration<?> registration : eventSubscribers.values()) {
+                    newMetrics.add(registration);
+                }
+            }
+        }
+        for (DefaultEventBus child : children) {
+            child.setMetrics(newMetrics);
+        }
+    }
+
+    /**
+     * Resets the cached stickiness of this event bus and its children, and discards
+     * the stored events of the specified type that are no longer sticky.
+     */
+    private void invalidateStickiness(Class<? extends Event> eventType) {
+        invalidateDispatchCache();
+        stickyEvents.values().removeIf(event -> eventType.isInstance(event)
+                && stickinessOf(event.getClass()) == Stickiness.NONE);
+        for (DefaultEventBus child : children) {
+            child.invalidateStickiness(eventType);
+        }
+    }
+
+    /** Returns the stickiness of the event class, inherited from the parent if not specified. */
+    private Stickiness stickinessOf(Class<?> eventType) {
+        Stickiness stickiness = Stickiness.NONE;
+        for (DefaultEventBus bus = this; bus != null && stickiness == Stickiness.NONE; bus = bus.parent) {
+            for (Map.Entry<Class<?>, Boolean> entry : bus.stickyTypes.entrySet()) {
+                if (entry.getKey().isAssignableFrom(eventType)) {
+                    stickiness = entry.getValue() ? Stickiness.PER_SOURCE : Stickiness.PER_TYPE;
+                    if (stickiness == Stickiness.PER_SOURCE) { break; }
+                }
+            }
+        }
+        return stickiness;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the registration, unless the same subscriber is already subscribed
+     * to the same event type. In the latter case, returns the existing one.
+     */
+    <E> Registration<E> register(Registration<E> registration) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed.");
+        }
+        expungeCollectedSubscribers();
+
+        Registry current = registry.get();
+        Registration<?> existing = current.add(registration);
+        if (existing != null) {
+            return (Registration<E>) existing;
+        }
+        invalidateDispatchCache();
+
+        if (closed) {
+            // the registry could be swapped by close() before the registration was added
+            if (current.remove(registration)) {
+                release(registration);
+            }
+            throw new IllegalStateException("Event bus is closed.");
+        }
+
+        EventBusMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.add(registration);
+        }
+        deliverStickyEvents(registration);
+        return registration;
+    }
+
+    void remove(Registration<?> registration) {
+        if (!registry.get().remove(registration)) {
+            return;
+        }
+        invalidateDispatchCache();
+        release(registration);
+    }
+
+    /** Called once the registration was removed from the registry. */
+    private void release(Registration<?> registration) {
+        registration.removed();
+        EventBusMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.remove(registration);
+        }
+    }
+
+    private <E> void deliverStickyEvents(Registration<E> registration) {
+        // the nearest event bus keeps the latest event, because events published to the parent
+        // are stored by the children too, the parent only adds the ones published before
+        Map<Object, Event> events = null;
+        for (DefaultEventBus bus = this; bus != null; bus = bus.parent) {
+            if (bus.stickyEvents.isEmpty()) { continue; }
+            if (events == null) { events = new HashMap<>(); }
+            bus.stickyEvents.forEach(events::putIfAbsent);
+        }
+        if (events == null) { return; }
+
+        EventOverflowException overflow = null;
+        for (Event event : events.values()) {
+            if (!registration.eventType.isInstance(event)) { continue; }
+            if (stickinessOf(event.getClass()) == Stickiness.NONE) { continue; }
+            if (registration.sourceId != null
+                    && !(event instanceof AbstractEvent abstractEvent
+                    && abstractEvent.getSource() != null
+                    && registration.sourceId.equals(abstractEvent.getSource().id()))) {
+                continue;
+            }
+            EventOverflowException e = publish(event, (Registration<Event>) registration);
+            if (overflow == null) { overflow = e; }
+        }
+
+        if (overflow != null) {
+            throw overflow;
+        }
+    }
+
+    /** Completes the pending request the reply refers to, if any. */
+    void completeRequest(ReplyEvent reply) {
+        UUID requestId = reply.getRequestId();
+        if (requestId == null) { return; }
+
+        PendingReply pendingReply = pendingReplies.get(requestId);
+        if (pendingReply != null
+                && pendingReply.replyType.isInstance(reply)
+                && pendingReplies.remove(requestId, pendingReply)) {
+            pendingReply.future.complete(reply);
+        }
+    }
+
+    private void storeSticky(Event event, Stickiness stickiness) {
+        Object key = stickyKey(event, stickiness);
+        stickyEvents.put(key, event);
+        // the event type could be removed from sticky since the dispatch table was resolved
+        if (stickinessOf(event.getClass()) == Stickiness.NONE) {
+            stickyEvents.remove(key, event);
+        }
+    }
+
+    private static Object stickyKey(Event event, Stickiness stickiness) {
+        if (stickiness == Stickiness.PER_SOURCE
+                && event instanceof AbstractEvent abstractEvent
+                && abstractEvent.getSource() != null) {
+            return new StickyKey(event.getClass(), abstractEvent.getSource().id());
+        }
+        return event.getClass();
+    }
+
+    /** Removes registrations of weak subscribers whose owners have been garbage collected. */
+    private void expungeCollectedSubscribers() {
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            ((WeakSubscriber<?, ?>) reference).cancel();
+        }
+    }
+
+    /**
+     * Returns all registrations the event of the specified class must be delivered to,
+     * except those filtered by the event source.
+     */
+    Registration<?>[] getSubscribers(Class<?> eventType) {
+        return getDispatchTable(eventType).registrations;
+    }
+
+    private void removeAll(Map<Object, Registration<?>> eventSubscribers, Consumer<?> subscriber) {
+        for (Registration<?> registration : eventSubscribers.values()) {
+            if (registration.subscriber == subscriber) {
+                remove(registration);
+            }
+        }
+    }
+
+    private DispatchTable getDispatchTable(Class<?> eventType) {
+        // The dispatch cache belongs to the registry instance, which is replaced on every change,
+        // so a table resolved before the change is never cached for the subscribers after it.
+        Registry current = registry.get();
+        int typeId = EventTypeIds.idOf(eventType);
+        DispatchTable[] cache = current.dispatchCache;
+        DispatchTable dispatchTable = typeId < cache.length ? cache[typeId] : null;
+        if (dispatchTable == null) {
+            dispatchTable = createDispatchTable(current, eventType);
+            current.cache(typeId, dispatchTable);
+        }
+        return dispatchTable;
+    }
+
+    private DispatchTable createDispatchTable(Registry registry, Class<?> eventType) {
+        List<Registration<?>> registrations = new ArrayList<>();
+        for (Class<?> supertype : EventTypeIds.supertypesOf(eventType)) {
+            Map<Object, Registration<?>> eventSubscribers = registry.subscribers.get(supertype);
+            if (eventSubscribers != null) {
+                registrations.addAll(eventSubscribers.values());
+            }
+        }
+        Stickiness stickiness = stickinessOf(eventType);
+
+        boolean reply = ReplyEvent.class.isAssignableFrom(eventType);
+        boolean consumable = ConsumableEvent.class.isAssignableFrom(eventType);
+        if (registrations.isEmpty() && stickiness == Stickiness.NONE && !reply) {
+            return EMPTY_DISPATCH_TABLE;
+        }
+
+        registrations.sort(DELIVERY_ORDER);
+
+        List<Registration<?>> unfiltered = new ArrayList<>();
+        Map<String, List<Registration<?>>> filtered = new HashMap<>();
+        for (Registration<?> registration : registrations) {
+            if (registration.sourceId != null) {
+                filtered.computeIfAbsent(registration.sourceId, id -> new ArrayList<>()).add(registration);
+            } else {
+                unfiltered.add(registration);
+            }
+        }
+
+        Map<String, Registration<?>[]> bySource = new HashMap<>();
+        filtered.forEach((sourceId, list) -> bySource.put(sourceId, list.toArray(NO_SUBSCRIBERS)));
+        return new DispatchTable(
+                unfiltered.toArray(NO_SUBSCRIBERS),
+                !bySource.isEmpty() ? bySource : Map.of(),
+                stickiness,
+                reply,
+                consumable
+        );
+    }
+
+    /**
+     * Replaces the registry with the one that shares the same subscribers, but has empty
+     * dispatch cache. Tables that are still being built from the previous registry are
+     * cached in the discarded one.
+     */
+    private void invalidateDispatchCache() {
+        Registry current;
+        do {
+            current = registry.get();
+        } while (!registry.compareAndSet(current, new Registry(current.subscribers)));
+    }
+
+    /**
+     * Delivers the event to a single registration. Bounded queues that are configured
+     * to fail must notify the publisher, but only after all other subscribers received
+     * the event, hence the overflow is returned instead of thrown.
+     */
+    private <E extends Event> @Nullable EventOverflowException publish(E event, Registration<E> registration) {
+        if (registration.fxBound) {
+            fxDeliveryQueue.deliver(event, registration.target);
+            return null;
+        }
+
+        EventOverflowException overflow = null;
+        EventBusMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0L;
         try {
-            subscriber.accept(event);
+            // the slow subscriber handler can throw as well, it mustn't abort the fan-out
+            try {
+                registration.target.accept(event);
+            } finally {
+                if (metrics != null) {
+                    metrics.recordInvocation(registration, event.getClass(), System.nanoTime() - start);
+                }
+            }
+        } catch (EventOverflowException e) {
+            overflow = e;
         } catch (Exception e) {
             Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
         }
+        return overflow;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private enum Stickiness {
+        NONE, PER_TYPE, PER_SOURCE
+    }
+
+    /**
+     * Resolved subscribers for a concrete event class. Source filtered subscribers
+     * are indexed by the source ID.
+     */
+    private record DispatchTable(Registration<?>[] registrations,
+                                 Map<String, Registration<?>[]> bySource,
+                                 Stickiness stickiness,
+                                 boolean reply,
+                                 boolean consumable) { }
+
+    private record PendingReply(Class<?> replyType, CompletableFuture<Object> future) { }
+
+    private record StickyKey(Class<?> eventType, String sourceId) { }
+
+    /**
+     * All registrations, grouped by the event type and keyed by {@link Registration#key()},
+     * along with the dispatch cache. Registrations of each type are modified atomically,
+     * so that a registration can't be added to the map that's being removed concurrently.
+     * The dispatch cache is populated lazily, it's an array indexed by
+     * {@link EventTypeIds event type ID}.
+     */
+    private static final class Registry {
+
+        final ConcurrentHashMap<Class<?>, Map<Object, Registration<?>>> subscribers;
+        volatile DispatchTable[] dispatchCache = NO_DISPATCH_TABLES;
+
+        Registry(ConcurrentHashMap<Class<?>, Map<Object, Registration<?>>> subscribers) {
+            this.subscribers = subscribers;
+        }
+
+        /**
+         * Caches the dispatch table. Concurrent calls can lose each other's entries
+         * when the array grows, which only means that the table is created again.
+         */
+        void cache(int typeId, DispatchTable dispatchTable) {
+            DispatchTable[] cache = dispatchCache;
+            if (typeId >= cache.length) {
+                cache = Arrays.copyOf(cache, Math.max(typeId + 1, cache.length * 2));
+                cache[typeId] = dispatchTable;
+                dispatchCache = cache;
+            } else {
+                cache[typeId] = dispatchTable;
+            }
+        }
+
+        /** Adds the registration, unless there's already one with the same key. Returns the latter. */
+        @Nullable Registration<?> add(Registration<?> registration) {
+            Object key = registration.key();
+            Registration<?>[] existing = new Registration<?>[1];
+            subscribers.compute(registration.eventType, (eventType, eventSubscribers) -> {
+                if (eventSubscribers == null) {
+                    eventSubscribers = new ConcurrentHashMap<>();
+                }
+                existing[0] = eventSubscribers.putIfAbsent(key, registration);
+                return eventSubscribers;
+            });
+            return existing[0];
+        }
+
+        /** Removes the registration. Returns false if it was already removed. */
+        boolean remove(Registration<?> registration) {
+            Object key = registration.key();
+            boolean[] removed = new boolean[1];
+            subscribers.computeIfPresent(registration.eventType, (eventType, eventSubscribers) -> {
+                removed[0] = eventSubscribers.remove(key, registration);
+                return !eventSubscribers.isEmpty() ? eventSubscribers : null;
+            });
+            return removed[0];
+        }
     }
 }
@@ -0,0 +1,484 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Forwards events between event buses of different processes on the same machine over
+ * Unix domain sockets. One process {@link #listen(EventBus, Path) listens} on a socket file,
+ * and any number of others {@link #connect(EventBus, Path) connect} to it.
+ * <p>
+ * Events are encoded with the codec registered for their class, both ends must register
+ * the same codecs with the same type IDs. Events of the {@link #forward(Class) forwarded}
+ * types are sent to all connected peers, and events received from a peer are published to
+ * the local event bus. A received event is never sent back to the peer it came from, so
+ * both ends can forward the same event types.
+ * <p>
+ * Each frame consists of the length, the type ID and the payload written by the codec.
+ * Publishers only append frames to the peer buffer, and a single I/O thread writes all
+ * pending frames at once, so a burst of small events costs a single system call. Received
+ * events are published in the I/O thread.
+ * <p>
+ * Each peer buffers up to {@value #MAX_BUFFER_SIZE} bytes of pending frames. If a peer
+ * doesn't read, further events are dropped for that peer only, while local subscribers
+ * and other peers aren't affected. The number of dropped events is reported by
+ * {@link #getDroppedEventCount()}.
+ */
+public final class EventBridge implements AutoCloseable {
+
+    // length, type ID
+    static final int FRAME_HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    private final EventBus eventBus;
+    private final Selector selector;
+    private final @Nullable ServerSocketChannel serverChannel;
+    private final @Nullable Path socketPath;
+    private final Map<Class<?>, CodecEntry<?>> codecsByType = new ConcurrentHashMap<>();
+    private final Map<Short, CodecEntry<?>> codecsById = new ConcurrentHashMap<>();
+    private final List<Peer> peers = new CopyOnWriteArrayList<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Queue<Peer> flushQueue = new ConcurrentLinkedQueue<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    // the peer each received event came from, to avoid sending it back
+    private final Map<ReceivedEvent, Peer> received = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Event> collectedEvents = new ReferenceQueue<>();
+    private final Thread ioThread;
+    private volatile boolean closed;
+
+    private EventBridge(EventBus eventBus,
+                        @Nullable ServerSocketChannel serverChannel,
+                        @Nullable Path socketPath,
+                        @Nullable SocketChannel clientChannel) throws IOException {
+        this.eventBus = eventBus;
+        this.selector = Selector.open();
+        this.serverChannel = serverChannel;
+        this.socketPath = socketPath;
+
+        if (serverChannel != null) {
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        if (clientChannel != null) {
+            addPeer(clientChannel);
+        }
+
+        this.ioThread = new Thread(this::run, "backbonefx-event-bridge");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    /**
+     * Creates new bridge that accepts connections on the specified socket file.
+     * The file must not exist, and it's deleted when the bridge is closed.
+     *
+     * @param eventBus   the local event bus.
+     * @param socketPath the socket file path.
+     * @throws IOException if the socket can't be bound.
+     */
+    public static EventBridge listen(EventBus eventBus, Path socketPath) throws IOException {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(socketPath, "Socket path must not be null.");
+
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+            return new EventBridge(eventBus, channel, socketPath, null);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates new bridge connected to the bridge that listens on the specified socket file.
+     *
+     * @param eventBus   the local event bus.
+     * @param socketPath the socket file path.
+     * @throws IOException if the connection can't be established.
+     */
+    public static EventBridge connect(EventBus eventBus, Path socketPath) throws IOException {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(socketPath, "Socket path must not be null.");
+
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            return new EventBridge(eventBus, null, null, channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Registers the codec for the specified event type, so that events of this type can be
+     * received. Codecs should be registered before the peers start sending events, frames
+     * of unknown types are skipped.
+     *
+     * @param eventType the event class.
+     * @param typeId    the unique type ID, must be the same at both ends.
+     * @param codec     the event codec.
+     * @param <E>       the event type class.
+     */
+    public <E extends Event> void registerCodec(Class<E> eventType, int typeId, EventCodec<E> codec) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(codec, "Codec must not be null.");
+        if (typeId < 0 || typeId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Type ID must be in range [0, " + Short.MAX_VALUE + "].");
+        }
+
+        var entry = new CodecEntry<>(eventType, (short) typeId, codec);
+        if (codecsById.putIfAbsent(entry.typeId, entry) != null) {
+            throw new IllegalArgumentException("Type ID " + typeId + " is already registered.");
+        }
+        codecsByType.put(eventType, entry);
+    }
+
+    /**
+     * Starts sending events of the specified type, published to the local event bus,
+     * to all connected peers. Only events of exactly this class are sent.
+     *
+     * @param eventType the event class, which codec must be registered.
+     * @param <E>       the event type class.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> void forward(Class<E> eventType) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        var entry = (CodecEntry<E>) codecsByType.get(eventType);
+        if (entry == null) {
+            throw new IllegalArgumentException("No codec registered for " + eventType.getName());
+        }
+
+        subscriptions.add(eventBus.subscribe(eventType, event -> {
+            if (event.getClass() != eventType) { return; }
+
+            Peer origin = !received.isEmpty() ? received.get(new ReceivedEvent(event, null)) : null;
+            for (Peer peer : peers) {
+                if (peer != origin && peer.send(entry, event)) {
+                    flushQueue.offer(peer);
+                    selector.wakeup();
+                }
+            }
+        }));
+    }
+
+    /** Returns the number of connected peers. */
+    public int getPeerCount() {
+        return peers.size();
+    }
+
+    /** Returns the number of events that weren't sent, because the peer buffer was full. */
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    /** Disconnects all peers and stops forwarding events. Pending events are discarded. */
+    @Override
+    public void close() throws IOException {
+        if (closed) { return; }
+        closed = true;
+
+        for (Subscription subscription : subscriptions) {
+            subscription.cancel();
+        }
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Peer peer : peers) {
+            peer.channel.close();
+        }
+        peers.clear();
+        selector.close();
+
+        if (serverChannel != null) {
+            serverChannel.close();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+
+                Peer peer;
+                while ((peer = flushQueue.poll()) != null) {
+                    flush(peer);
+                }
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) { continue; }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    peer = (Peer) key.attachment();
+                    if (key.isReadable()) {
+                        read(peer);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(peer);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = Objects.requireNonNull(serverChannel).accept();
+        if (channel != null) {
+            addPeer(channel);
+        }
+    }
+
+    private void addPeer(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        Peer peer = new Peer(channel, droppedEvents);
+        peer.key = channel.register(selector, SelectionKey.OP_READ, peer);
+        peers.add(peer);
+    }
+
+    private void disconnect(Peer peer) {
+        peers.remove(peer);
+        peer.key.cancel();
+        try {
+            peer.channel.close();
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+    }
+
+    private void read(Peer peer) {
+        ByteBuffer buffer = peer.readBuffer;
+        try {
+            if (peer.channel.read(buffer) < 0) {
+                disconnect(peer);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(peer);
+            return;
+        }
+
+        buffer.flip();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length < Short.BYTES || length > MAX_BUFFER_SIZE - Integer.BYTES) {
+                // corrupted stream, there's no way to find the next frame
+                disconnect(peer);
+                return;
+            }
+            if (buffer.remaining() < Integer.BYTES + length) {
+                if (buffer.capacity() < Integer.BYTES + length) {
+                    buffer = grow(buffer, Integer.BYTES + length);
+                }
+                break;
+            }
+
+            int frameEnd = buffer.position() + Integer.BYTES + length;
+            short typeId = buffer.getShort(buffer.position() + Integer.BYTES);
+            CodecEntry<?> entry = codecsById.get(typeId);
+            if (entry != null) {
+                ByteBuffer payload = buffer.slice(buffer.position() + FRAME_HEADER_SIZE, length - Short.BYTES);
+                publish(peer, entry, payload);
+            }
+            buffer.position(frameEnd);
+        }
+
+        buffer.compact();
+        peer.readBuffer = buffer;
+    }
+
+    private void publish(Peer peer, CodecEntry<?> entry, ByteBuffer payload) {
+        Event event;
+        try {
+            event = entry.codec.decode(payload);
+        } catch (RuntimeException e) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            return;
+        }
+        expungeCollectedEvents();
+        received.put(new ReceivedEvent(event, collectedEvents), peer);
+        eventBus.publish(event);
+    }
+
+    private void expungeCollectedEvents() {
+        Reference<? extends Event> reference;
+        while ((reference = collectedEvents.poll()) != null) {
+            received.remove(reference);
+        }
+    }
+
+    private void flush(Peer peer) {
+        try {
+            if (peer.flush()) {
+                peer.key.interestOps(SelectionKey.OP_READ);
+            } else {
+                peer.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            disconnect(peer);
+        }
+    }
+
+    /** Returns a bigger buffer in read mode, with the same content. */
+    private static ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+        int capacity = buffer.capacity();
+        while (capacity < minCapacity) {
+            capacity *= 2;
+        }
+        return ByteBuffer.allocateDirect(Math.min(capacity, MAX_BUFFER_SIZE)).put(buffer).flip();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private record CodecEntry<E extends Event>(Class<E> eventType, short typeId, EventCodec<E> codec) { }
+
+    /**
+     * Weak key that compares events by identity, because events can override equals,
+     * and two equal events published independently must not be confused.
+     */
+    private static final class ReceivedEvent extends WeakReference<Event> {
+
+        private final int hash;
+
+        ReceivedEvent(Event event, @Nullable ReferenceQueue<Event> queue) {
+            super(event, queue);
+            this.hash = System.identityHashCode(event);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) { return true; }
+            if (!(obj instanceof ReceivedEvent other)) { return false; }
+            Event event = get();
+            return event != null && event == other.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Connection state. Publishers append frames to the pending buffer, while the I/O
+     * thread writes the other one. Buffers are swapped once the written one is drained.
+     */
+    private static final class Peer {
+
+        final SocketChannel channel;
+        final LongAdder droppedEvents;
+        SelectionKey key;
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+
+        private ByteBuffer pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE); // guarded by this
+        private boolean flushScheduled; // guarded by this
+        private ByteBuffer writing = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE).flip();
+
+        Peer(SocketChannel channel, LongAdder droppedEvents) {
+            this.channel = channel;
+            this.droppedEvents = droppedEvents;
+        }
+
+        /**
+         * Appends the frame to the pending buffer. Returns true if the peer has to be
+         * flushed, or false if the flush is already scheduled. The event is dropped
+         * if the buffer can't grow any further. Codec exceptions are rethrown.
+         */
+        synchronized <E extends Event> boolean send(CodecEntry<E> entry, E event) {
+            int start = pending.position();
+            while (true) {
+                if (pending.remaining() > FRAME_HEADER_SIZE) {
+                    try {
+                        pending.position(start + FRAME_HEADER_SIZE);
+                        entry.codec.encode(event, pending);
+                        break;
+                    } catch (BufferOverflowException e) {
+                        // retry with a bigger buffer
+                    } catch (RuntimeException e) {
+                        // drop the partial frame, so that the stream stays consistent
+                        pending.position(start);
+                        throw e;
+                    }
+                }
+
+                if (pending.capacity() >= MAX_BUFFER_SIZE) {
+                    // the peer doesn't read, or the event is too big
+                    pending.position(start);
+                    droppedEvents.increment();
+                    return false;
+                }
+                pending = grow(pending.position(start).flip(), pending.capacity() * 2);
+                pending.position(pending.limit()).limit(pending.capacity());
+            }
+
+            pending.putInt(start, pending.position() - start - Integer.BYTES);
+            pending.putShort(start + Integer.BYTES, entry.typeId);
+
+            if (flushScheduled) { return false; }
+            flushScheduled = true;
+            return true;
+        }
+
+        /** Writes as much as possible. Returns true if there's nothing more to write. */
+        boolean flush() throws IOException {
+            while (true) {
+                if (!writing.hasRemaining()) {
+                    synchronized (this) {
+                        if (pending.position() == 0) {
+                            flushScheduled = false;
+                            return true;
+                        }
+                        ByteBuffer written = writing;
+                        writing = pending;
+                        pending = written.clear();
+                    }
+                    writing.flip();
+                }
+
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    return false;
+                }
+            }
+        }
+    }
+}
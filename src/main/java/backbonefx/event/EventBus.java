@@ -1,28 +1,66 @@
 package backbonefx.event;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 @SuppressWarnings("unused")
 public interface EventBus {
 
     /**
-     * Subscribe to an event type.
+     * Subscribe to an event type. If the subscriber is already subscribed to the same
+     * event type, the existing subscription is returned.
      *
      * @param eventType  the event type, can be a super class of all events to subscribe.
      * @param subscriber the subscriber which will consume the events.
      * @param <T>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
      */
-    <T extends Event> void subscribe(Class<? extends T> eventType, Consumer<T> subscriber);
+    <T extends Event> Subscription subscribe(Class<? extends T> eventType, Consumer<T> subscriber);
 
     /**
-     * Unsubscribe from all event types.
+     * Subscribe to an event type using the operator that controls the delivery, e.g.
+     * {@link Debounce} or {@link Throttle}. The default implementation subscribes the
+     * consumer returned by the operator, so the subscription can only be cancelled
+     * using the returned handle.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param subscriber the subscriber which will consume the events.
+     * @param operator   the operator to apply to the subscriber.
+     * @param <T>        the event type class.
+     * @return the subscription handle that can be used to unsubscribe.
+     */
+    default <T extends Event> Subscription subscribeWith(Class<? extends T> eventType,
+                                                         Consumer<T> subscriber,
+                                                         EventOperator operator) {
+        Objects.requireNonNull(operator, "Operator must not be null.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        Consumer<T> target = operator.apply(subscriber);
+        Subscription subscription = subscribe(eventType, target);
+        if (!(target instanceof Subscription operatorSubscription)) {
+            return subscription;
+        }
+        return () -> {
+            subscription.cancel();
+            operatorSubscription.cancel();
+        };
+    }
+
+    /**
+     * Unsubscribe from all event types. This method has to find all registrations
+     * of the subscriber, prefer {@link Subscription#cancel()} instead.
      *
      * @param subscriber the subscriber to unsubscribe.
      */
     <T extends Event> void unsubscribe(Consumer<T> subscriber);
 
     /**
-     * Unsubscribe from an event type.
+     * Unsubscribe from an event type. This method has to find all registrations
+     * of the subscriber, prefer {@link Subscription#cancel()} instead.
      *
      * @param eventType  the event type, can be a super class of all events to unsubscribe.
      * @param subscriber the subscriber to unsubscribe.
@@ -39,4 +77,43 @@ public interface EventBus {
      * @param event the event.
      */
     <T extends Event> void publish(T event);
+
+    /**
+     * Publish multiple events to all subscribers, in iteration order. Implementations
+     * may resolve subscribers once per event class and deliver the events to each
+     * {@link BatchConsumer} as a single batch. The default implementation publishes
+     * the events one by one.
+     *
+     * @param events the events.
+     */
+    default <T extends Event> void publishAll(Collection<? extends T> events) {
+        for (T event : events) {
+            publish(event);
+        }
+    }
+
+    /**
+     * Publish multiple events to all subscribers, in the specified order.
+     *
+     * @param events the events.
+     * @see #publishAll(Collection)
+     */
+    default void publishAll(Event... events) {
+        publishAll(Arrays.asList(events));
+    }
+
+    /**
+     * Publish an event and wait for the reply asynchronously. The event is published as
+     * usual, and the returned future is completed by the first published event of the
+     * reply type, which {@link ReplyEvent#getRequestId()} matches the ID of the request.
+     * The reply is delivered to the subscribers as well.
+     *
+     * @param event     the request event.
+     * @param replyType the expected reply type.
+     * @param timeout   the maximum time to wait for the reply, after which the future
+     *                  is completed with {@link java.util.concurrent.TimeoutException}.
+     * @param <R>       the reply type class.
+     * @return the future that is completed with the reply.
+     */
+    <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event, Class<R> replyType, Duration timeout);
 }
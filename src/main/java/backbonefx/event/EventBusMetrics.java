@@ -0,0 +1,133 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Instrumentation of the {@link DefaultEventBus}. Counts published events per event class
+ * and records the invocation latency of each synchronously called subscriber. Subscribers
+ * that take longer than the threshold are reported to the slow subscriber handler.
+ * <p>
+ * Metrics are only collected while enabled, see {@link DefaultEventBus#enableMetrics(Duration, Consumer)}.
+ * Latency of subscribers that are delivered in the FX application thread isn't recorded,
+ * because it doesn't affect the publisher.
+ */
+public final class EventBusMetrics {
+
+    private final Map<Class<?>, LongAdder> publishCounts = new ConcurrentHashMap<>();
+    private final Map<Registration<?>, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+    private final @Nullable Consumer<SlowInvocation> slowSubscriberHandler;
+
+    EventBusMetrics(@Nullable Duration slowThreshold, @Nullable Consumer<SlowInvocation> slowSubscriberHandler) {
+        this.slowThresholdNanos = slowThreshold != null ? slowThreshold.toNanos() : Long.MAX_VALUE;
+        this.slowSubscriberHandler = slowSubscriberHandler;
+    }
+
+    /** Returns a copy of the metrics collected so far. */
+    public Snapshot snapshot() {
+        Map<Class<?>, Long> counts = new HashMap<>();
+        publishCounts.forEach((eventClass, count) -> counts.put(eventClass, count.sum()));
+
+        List<SubscriberStats> subscribers = new ArrayList<>(latencies.size());
+        latencies.forEach((registration, histogram) -> subscribers.add(new SubscriberStats(
+                registration.eventType,
+                registration.subscriber.getClass().getName(),
+                originOf(registration.subscriber),
+                histogram.snapshot()
+        )));
+
+        return new Snapshot(Map.copyOf(counts), List.copyOf(subscribers));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    void recordPublish(Class<?> eventClass, int count) {
+        publishCounts.computeIfAbsent(eventClass, k -> new LongAdder()).add(count);
+    }
+
+    /** Starts recording the latency of the registration, called once it's added to the event bus. */
+    void add(Registration<?> registration) {
+        if (registration.fxBound) { return; }
+        latencies.putIfAbsent(registration, new LatencyHistogram());
+        // the registration could be removed concurrently, before its histogram was added
+        if (registration.isRemoved()) {
+            latencies.remove(registration);
+        }
+    }
+
+    void recordInvocation(Registration<?> registration, Class<?> eventClass, long nanos) {
+        // never creates the histogram, so that a concurrently removed registration isn't retained
+        LatencyHistogram histogram = latencies.get(registration);
+        if (histogram != null) {
+            histogram.record(nanos);
+        }
+
+        if (nanos >= slowThresholdNanos && slowSubscriberHandler != null) {
+            slowSubscriberHandler.accept(new SlowInvocation(
+                    eventClass,
+                    registration.subscriber.getClass().getName(),
+                    originOf(registration.subscriber),
+                    Duration.ofNanos(nanos)
+            ));
+        }
+    }
+
+    void remove(Registration<?> registration) {
+        latencies.remove(registration);
+    }
+
+    /** Returns the class that declares the lambda, or the subscriber class itself. */
+    static String originOf(Object subscriber) {
+        String className = subscriber.getClass().getName();
+        int lambdaIndex = className.indexOf("$$Lambda");
+        return lambdaIndex >= 0 ? className.substring(0, lambdaIndex) : className;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Collected metrics.
+     *
+     * @param publishCounts the number of published events per event class.
+     * @param subscribers   the invocation latency of each active subscription.
+     */
+    public record Snapshot(Map<Class<?>, Long> publishCounts, List<SubscriberStats> subscribers) {
+
+        /** Returns the number of published events of the specified class. */
+        public long getPublishCount(Class<? extends Event> eventClass) {
+            return publishCounts.getOrDefault(eventClass, 0L);
+        }
+    }
+
+    /**
+     * Invocation latency of a single subscription.
+     *
+     * @param eventType       the event type the subscriber is subscribed to.
+     * @param subscriberClass the class name of the subscriber.
+     * @param origin          the class that declares the subscriber lambda, or the subscriber class.
+     * @param latency         the latency histogram.
+     */
+    public record SubscriberStats(Class<?> eventType,
+                                  String subscriberClass,
+                                  String origin,
+                                  LatencySnapshot latency) { }
+
+    /**
+     * Subscriber invocation that took longer than the threshold.
+     *
+     * @param eventClass      the class of the delivered event.
+     * @param subscriberClass the class name of the subscriber.
+     * @param origin          the class that declares the subscriber lambda, or the subscriber class.
+     * @param elapsed         the invocation time.
+     */
+    public record SlowInvocation(Class<?> eventClass, String subscriberClass, String origin, Duration elapsed) { }
+}
@@ -0,0 +1,27 @@
+package backbonefx.event;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts events of a particular type to a compact binary form and back.
+ * Codecs should write as few bytes as possible and avoid allocating
+ * intermediate objects, as they're called for each recorded event.
+ *
+ * @param <E> the event type class.
+ */
+public interface EventCodec<E extends Event> {
+
+    /**
+     * Writes the event to the buffer, starting at its current position, using
+     * relative put operations. The method must not change the buffer limit.
+     *
+     * @throws java.nio.BufferOverflowException if the event doesn't fit into the buffer
+     */
+    void encode(E event, ByteBuffer buffer);
+
+    /**
+     * Reads the event from the buffer, starting at its current position, using
+     * relative get operations. The buffer limit is set to the end of the event data.
+     */
+    E decode(ByteBuffer buffer);
+}
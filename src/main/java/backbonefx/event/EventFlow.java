@@ -0,0 +1,244 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Adapters between {@link EventBus} and {@link Flow} reactive streams.
+ * <p>
+ * {@link #publisher(EventBus, Class, int, OverflowPolicy)} exposes an event type as
+ * a {@link Flow.Publisher}. Events are delivered according to the demand signalled by
+ * the reactive subscriber. Events that aren't requested yet are kept in a bounded buffer,
+ * and the overflow policy decides what happens when it's full.
+ * <p>
+ * {@link #subscriber(EventBus, int)} creates a {@link Flow.Subscriber} that requests
+ * events from an upstream publisher in batches and publishes them to the event bus.
+ * <p>
+ * Neither of them switches threads. Events are delivered either in the thread that
+ * publishes them or in the thread that signals the demand.
+ */
+public final class EventFlow {
+
+    public static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    private EventFlow() { }
+
+    /**
+     * Creates new publisher with the default buffer size, which drops the oldest
+     * events on overflow.
+     *
+     * @see #publisher(EventBus, Class, int, OverflowPolicy)
+     */
+    public static <E extends Event> Flow.Publisher<E> publisher(EventBus eventBus, Class<E> eventType) {
+        return publisher(eventBus, eventType, DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Creates new publisher that emits events of the specified type. Each reactive subscriber
+     * gets its own event bus subscription, which is cancelled with the reactive one. The
+     * {@link OverflowPolicy#FAIL} policy terminates the reactive subscriber with
+     * {@link EventOverflowException}.
+     *
+     * @param eventBus       the event bus to subscribe.
+     * @param eventType      the event type, can be a super class of all events to emit.
+     * @param bufferSize     the maximum number of events that are kept until requested.
+     * @param overflowPolicy the action to take when the buffer is full.
+     * @param <E>            the event type class.
+     */
+    public static <E extends Event> Flow.Publisher<E> publisher(EventBus eventBus,
+                                                                Class<E> eventType,
+                                                                int bufferSize,
+                                                                OverflowPolicy overflowPolicy) {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(overflowPolicy, "Overflow policy must not be null.");
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+            var subscription = new BusSubscription<E>(subscriber, bufferSize, overflowPolicy);
+            subscriber.onSubscribe(subscription);
+            subscription.connect(eventBus.subscribe(eventType, subscription));
+        };
+    }
+
+    /**
+     * Creates new subscriber that publishes all received items to the event bus.
+     * It requests the next batch of items only after the previous one has been
+     * published.
+     *
+     * @param eventBus  the event bus to publish to.
+     * @param batchSize the number of items to request at once.
+     * @param <E>       the event type class.
+     */
+    public static <E extends Event> Flow.Subscriber<E> subscriber(EventBus eventBus, int batchSize) {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        return new BusPublisher<>(eventBus, batchSize);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static final class BusSubscription<E> implements Flow.Subscription, Consumer<E> {
+
+        private final Flow.Subscriber<? super E> downstream;
+        private final BlockingQueue<E> buffer;
+        private final OverflowPolicy overflowPolicy;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile @Nullable Throwable error;
+        private volatile @Nullable Subscription busSubscription;
+
+        BusSubscription(Flow.Subscriber<? super E> downstream, int bufferSize, OverflowPolicy overflowPolicy) {
+            this.downstream = downstream;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        void connect(Subscription busSubscription) {
+            this.busSubscription = busSubscription;
+            if (cancelled) {
+                busSubscription.cancel();
+            }
+        }
+
+        @Override
+        public void accept(E event) {
+            if (cancelled || error != null) { return; }
+
+            if (!buffer.offer(event)) {
+                switch (overflowPolicy) {
+                    case BLOCK -> {
+                        try {
+                            buffer.put(event);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    case DROP_OLDEST -> {
+                        while (!buffer.offer(event)) {
+                            buffer.poll();
+                        }
+                    }
+                    case DROP_NEWEST -> { }
+                    case FAIL -> fail(new EventOverflowException("Reactive subscriber buffer is full: " + downstream));
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested number of items must be positive, got " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, add) -> {
+                long sum = current + add;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Subscription busSubscription = this.busSubscription;
+            if (busSubscription != null) {
+                busSubscription.cancel();
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            if (error == null) {
+                error = throwable;
+                drain();
+            }
+        }
+
+        // Only one thread at a time can signal the downstream subscriber. Others just
+        // increment the counter, so that the active thread does another pass.
+        private void drain() {
+            if (wip.getAndIncrement() != 0) { return; }
+
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long emitted = 0;
+                while (emitted != demand && !cancelled && error == null) {
+                    E event = buffer.poll();
+                    if (event == null) { break; }
+                    downstream.onNext(event);
+                    emitted++;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+
+                Throwable throwable = error;
+                if (throwable != null && !cancelled) {
+                    cancel();
+                    buffer.clear();
+                    downstream.onError(throwable);
+                }
+                if (cancelled) {
+                    buffer.clear();
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    private static final class BusPublisher<E extends Event> implements Flow.Subscriber<E> {
+
+        private final EventBus eventBus;
+        private final int batchSize;
+        private Flow.Subscription subscription;
+        private int received;
+
+        BusPublisher(EventBus eventBus, int batchSize) {
+            this.eventBus = eventBus;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(E event) {
+            eventBus.publish(event);
+            if (++received == batchSize) {
+                received = 0;
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), throwable);
+        }
+
+        @Override
+        public void onComplete() { }
+    }
+}
@@ -0,0 +1,255 @@
+package backbonefx.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Subscribes methods annotated with {@link Subscribe} to the event bus.
+ * <p>
+ * Handler methods are discovered once per class, including inherited ones, and the result
+ * is cached. Each handler is compiled to a {@link Consumer} using {@link LambdaMetafactory},
+ * so calling it costs the same as calling a lambda. Handler methods can be private, but the
+ * package of the target class must be open to the {@code backbonefx} module. Otherwise, only
+ * public methods of public classes are supported and they're called via a method handle.
+ * <p>
+ * The subscribed consumers hold a strong reference to the target object, so the returned
+ * subscription has to be cancelled to release it. Objects that have no clear end of life
+ * can be subscribed with {@link #subscribeWeakly(EventBus, Object)} instead.
+ */
+public final class EventHandlers {
+
+    private static final MethodType CONSUMER_FACTORY = MethodType.methodType(Consumer.class);
+    private static final MethodType ACCEPT = MethodType.methodType(void.class, Object.class);
+    private static final MethodType INVOKER_FACTORY = MethodType.methodType(BiConsumer.class);
+    private static final MethodType INVOKE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Handler[]> HANDLERS = new ClassValue<>() {
+        @Override
+        protected Handler[] computeValue(Class<?> type) {
+            return findHandlers(type);
+        }
+    };
+
+    private EventHandlers() { }
+
+    /**
+     * Subscribes all handler methods of the target object. Calling this method twice
+     * for the same object subscribes its handlers twice.
+     *
+     * @param eventBus the event bus to subscribe to.
+     * @param target   the object which declares handler methods.
+     * @return the subscription handle that cancels all subscribed handlers at once.
+     * @throws IllegalArgumentException if any handler method has invalid signature
+     *                                  or isn't accessible.
+     */
+    @SuppressWarnings("unchecked")
+    public static Subscription subscribe(EventBus eventBus, Object target) {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(target, "Target must not be null.");
+
+        Handler[] handlers = HANDLERS.get(target.getClass());
+        if (handlers.length == 0) {
+            return () -> { };
+        }
+
+        Subscription[] subscriptions = new Subscription[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            Handler handler = handlers[i];
+            subscriptions[i] = eventBus.subscribe((Class<Event>) handler.eventType, handler.bind(target));
+        }
+
+        return () -> {
+            for (Subscription subscription : subscriptions) {
+                subscription.cancel();
+            }
+        };
+    }
+
+    /**
+     * Subscribes all handler methods of the target object, but only keeps a weak reference
+     * to it. Once the target is garbage collected, its handlers are unsubscribed, either
+     * on the next delivered event, or earlier if the event bus supports weak subscribers.
+     *
+     * @param eventBus the event bus to subscribe to.
+     * @param target   the object which declares handler methods.
+     * @return the subscription handle that cancels all subscribed handlers at once.
+     * @throws IllegalArgumentException if any handler method has invalid signature
+     *                                  or isn't accessible.
+     * @see DefaultEventBus#subscribeWeakly(Object, Class, BiConsumer)
+     */
+    @SuppressWarnings("unchecked")
+    public static Subscription subscribeWeakly(EventBus eventBus, Object target) {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(target, "Target must not be null.");
+
+        Handler[] handlers = HANDLERS.get(target.getClass());
+        if (handlers.length == 0) {
+            return () -> { };
+        }
+
+        Subscription[] subscriptions = new Subscription[handlers.length];
+        Subscription subscription = () -> {
+            for (Subscription s : subscriptions) {
+                if (s != null) { s.cancel(); }
+            }
+        };
+
+        WeakReference<Object> targetRef = new WeakReference<>(target);
+        for (int i = 0; i < handlers.length; i++) {
+            Class<Event> eventType = (Class<Event>) handlers[i].eventType;
+            BiConsumer<Object, Event> invoker = handlers[i].invoker();
+            if (eventBus instanceof DefaultEventBus defaultEventBus) {
+                subscriptions[i] = defaultEventBus.subscribeWeakly(target, eventType, invoker);
+            } else {
+                subscriptions[i] = eventBus.subscribe(eventType, event -> {
+                    Object owner = targetRef.get();
+                    if (owner != null) {
+                        invoker.accept(owner, event);
+                    } else {
+                        subscription.cancel();
+                    }
+                });
+            }
+        }
+        return subscription;
+    }
+
+    /** Returns true if the class declares or inherits at least one handler method. */
+    public static boolean hasHandlers(Class<?> type) {
+        Objects.requireNonNull(type, "Type must not be null.");
+        return HANDLERS.get(type).length > 0;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static Handler[] findHandlers(Class<?> type) {
+        List<Handler> handlers = new ArrayList<>();
+        Set<String> overridden = new HashSet<>();
+
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic()) { continue; }
+
+                // only the most specific declaration counts, even if it's not annotated
+                String signature = method.getName() + List.of(method.getParameterTypes());
+                if (!Modifier.isPrivate(method.getModifiers()) && !overridden.add(signature)) { continue; }
+
+                if (method.isAnnotationPresent(Subscribe.class)) {
+                    handlers.add(createHandler(method));
+                }
+            }
+        }
+
+        return handlers.toArray(Handler[]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Handler createHandler(Method method) {
+        if (Modifier.isStatic(method.getModifiers())
+                || method.getParameterCount() != 1
+                || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+            throw new IllegalArgumentException(
+                    "Handler method must be an instance method with a single event parameter: " + method
+            );
+        }
+
+        Class<?> eventType = method.getParameterTypes()[0];
+        Class<?> declaringClass = method.getDeclaringClass();
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle implementation = lookup.unreflect(method);
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        CONSUMER_FACTORY.appendParameterTypes(declaringClass),
+                        ACCEPT,
+                        implementation,
+                        MethodType.methodType(void.class, eventType)
+                );
+                CallSite invokerSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        INVOKER_FACTORY,
+                        INVOKE,
+                        implementation,
+                        MethodType.methodType(void.class, declaringClass, eventType)
+                );
+                BiConsumer<Object, Event> invoker = (BiConsumer<Object, Event>) invokerSite.getTarget().invoke();
+                return new Handler(eventType, callSite.getTarget(), invoker, null);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                return new Handler(eventType, null, invoker(implementation), implementation);
+            }
+        } catch (IllegalAccessException e) {
+            try {
+                MethodHandle implementation = MethodHandles.publicLookup().unreflect(method);
+                return new Handler(eventType, null, invoker(implementation), implementation);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException(
+                        "Handler method is not accessible, the package must be open to backbonefx: " + method, ex
+                );
+            }
+        }
+    }
+
+    /** Returns the handler that takes the target object as the first argument. */
+    private static BiConsumer<Object, Event> invoker(MethodHandle method) {
+        return (target, event) -> {
+            try {
+                method.invoke(target, event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Compiled handler method. The invoker takes the target as an argument and is used for
+     * weak subscriptions. Either the consumer factory or the method handle is specified,
+     * the latter is used when the lambdas can't be created.
+     */
+    private record Handler(Class<?> eventType,
+                           MethodHandle factory,
+                           BiConsumer<Object, Event> invoker,
+                           MethodHandle method) {
+
+        @SuppressWarnings("unchecked")
+        Consumer<Event> bind(Object target) {
+            if (factory != null) {
+                try {
+                    return (Consumer<Event>) factory.invoke(target);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Failed to bind handler to " + target.getClass().getName(), e);
+                }
+            }
+
+            return event -> {
+                try {
+                    method.invoke(target, event);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package backbonefx.event;
+
+import java.util.UUID;
+
+/**
+ * Generates unique event IDs for the {@link AbstractEvent}.
+ *
+ * @see AbstractEvent#setIdGenerator(EventIdGenerator)
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+
+    /**
+     * Random (version 4) UUIDs. It's the most expensive option, because it relies on
+     * {@link java.security.SecureRandom}, but IDs are unique across JVMs.
+     */
+    EventIdGenerator RANDOM = UUID::randomUUID;
+
+    /**
+     * The most significant bits are random per JVM, while the least significant bits
+     * are taken from a monotonic counter. Cheap and unique within the JVM.
+     */
+    EventIdGenerator SEQUENTIAL = new EventIdGenerators.Sequential();
+
+    /**
+     * Time ordered (version 7 layout) UUIDs: the most significant bits contain the
+     * Unix timestamp in milliseconds, the least significant bits are taken from a
+     * monotonic counter. IDs generated within the JVM are unique and sortable by
+     * creation time.
+     */
+    EventIdGenerator TIME_ORDERED = new EventIdGenerators.TimeOrdered();
+
+    /** Returns new unique ID. */
+    UUID nextId();
+}
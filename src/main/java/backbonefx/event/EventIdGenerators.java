@@ -0,0 +1,40 @@
+package backbonefx.event;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Built-in {@link EventIdGenerator} implementations. */
+final class EventIdGenerators {
+
+    // IETF variant bits, the rest of the least significant bits is the counter
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long COUNTER_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private EventIdGenerators() { }
+
+    static final class Sequential implements EventIdGenerator {
+
+        private final long prefix = UUID.randomUUID().getMostSignificantBits();
+        private final AtomicLong counter = new AtomicLong();
+
+        @Override
+        public UUID nextId() {
+            return new UUID(prefix, VARIANT | (counter.getAndIncrement() & COUNTER_MASK));
+        }
+    }
+
+    static final class TimeOrdered implements EventIdGenerator {
+
+        private static final long VERSION = 0x7000L;
+
+        private final long node = ThreadLocalRandom.current().nextLong() & 0x0FFFL;
+        private final AtomicLong counter = new AtomicLong();
+
+        @Override
+        public UUID nextId() {
+            long msb = (System.currentTimeMillis() << 16) | VERSION | node;
+            return new UUID(msb, VARIANT | (counter.getAndIncrement() & COUNTER_MASK));
+        }
+    }
+}
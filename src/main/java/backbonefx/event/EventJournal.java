@@ -0,0 +1,325 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only event log stored in a sequence of memory-mapped segment files. Events are
+ * encoded with the codec registered for their class, events without a codec are ignored.
+ * Since segments are memory-mapped, appending an event is a memory copy. System calls only
+ * happen when the current segment is full and the next one has to be created.
+ * <p>
+ * Each record consists of a header (payload length, type ID and timestamp) and the payload
+ * written by the codec. A journal opened on a non-empty directory starts a new segment, so
+ * that existing records are kept and can be replayed.
+ *
+ * @see RecordingEventBus
+ */
+public final class EventJournal implements AutoCloseable {
+
+    /** Determines the pace of the replayed events. */
+    public enum ReplayMode {
+
+        /** Publishes events as fast as possible. */
+        FULL_SPEED,
+
+        /** Reproduces the original intervals between events. */
+        ORIGINAL_TIMING
+    }
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".dat";
+    static final int SEGMENT_MAGIC = 0x42_46_58_4A; // BFXJ
+    static final int SEGMENT_HEADER_SIZE = Integer.BYTES * 2;
+    // payload length, type ID, timestamp
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<Class<?>, CodecEntry<?>> codecsByType = new ConcurrentHashMap<>();
+    private final Map<Short, CodecEntry<?>> codecsById = new ConcurrentHashMap<>();
+    private final long epochNanosBase;
+    private final long nanoTimeBase;
+
+    private @Nullable MappedByteBuffer segment;
+    private int segmentIndex;
+    private boolean closed;
+
+    /** Creates new journal with the default segment size. */
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates new journal in the specified directory. The directory is created if it
+     * doesn't exist. Segment files are only created when the first event is appended.
+     *
+     * @param directory   the directory to store segment files.
+     * @param segmentSize the size of each segment file in bytes, which also limits
+     *                    the size of a single record.
+     */
+    public EventJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "Directory must not be null.");
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small.");
+        }
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        this.segmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1)) + 1;
+
+        Instant now = Instant.now();
+        this.nanoTimeBase = System.nanoTime();
+        this.epochNanosBase = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+    }
+
+    /**
+     * Registers the codec for the specified event type. Only events of exactly this class
+     * are recorded. The type ID is stored with each record and must stay the same for
+     * all journals that are supposed to be replayed.
+     *
+     * @param eventType the event class.
+     * @param typeId    the unique type ID within the journal.
+     * @param codec     the event codec.
+     * @param <E>       the event type class.
+     */
+    public <E extends Event> void registerCodec(Class<E> eventType, int typeId, EventCodec<E> codec) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(codec, "Codec must not be null.");
+        if (typeId < 0 || typeId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Type ID must be in range [0, " + Short.MAX_VALUE + "].");
+        }
+
+        var entry = new CodecEntry<>(eventType, (short) typeId, codec);
+        if (codecsById.putIfAbsent(entry.typeId, entry) != null) {
+            throw new IllegalArgumentException("Type ID " + typeId + " is already registered.");
+        }
+        codecsByType.put(eventType, entry);
+    }
+
+    /** Checks whether events of the specified class are recorded or not. */
+    public boolean isRecorded(Class<?> eventType) {
+        return codecsByType.containsKey(eventType);
+    }
+
+    /**
+     * Appends the event to the journal, if there's a codec registered for its class.
+     * Exceptions thrown by the codec are rethrown, the event isn't recorded then, but
+     * the journal stays consistent.
+     *
+     * @throws UncheckedIOException if the next segment file can't be created.
+     * @throws IllegalStateException if the journal is closed.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> void append(E event) {
+        var entry = (CodecEntry<E>) codecsByType.get(event.getClass());
+        if (entry == null) { return; }
+
+        long timestamp = epochNanosBase + (System.nanoTime() - nanoTimeBase);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed.");
+            }
+
+            if (segment == null || !write(segment, entry, event, timestamp)) {
+                rollSegment();
+                if (!write(segment, entry, event, timestamp)) {
+                    throw new IllegalArgumentException("Event doesn't fit into the journal segment: " + event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the recorded events within the specified time range to the event bus.
+     * Records that are appended concurrently may or may not be replayed.
+     *
+     * @param eventBus the event bus to publish events to.
+     * @param from     the start of the time range, inclusive.
+     * @param to       the end of the time range, exclusive.
+     * @param mode     the replay pace.
+     * @return the number of replayed events.
+     * @throws IOException if segment files can't be read.
+     */
+    public long replay(EventBus eventBus, Instant from, Instant to, ReplayMode mode) throws IOException {
+        Objects.requireNonNull(eventBus, "Event bus must not be null.");
+        Objects.requireNonNull(mode, "Replay mode must not be null.");
+        long fromNanos = toEpochNanos(Objects.requireNonNull(from, "Time range must be specified."));
+        long toNanos = toEpochNanos(Objects.requireNonNull(to, "Time range must be specified."));
+
+        long count = 0;
+        long firstTimestamp = 0;
+        long replayStart = 0;
+
+        for (Path path : listSegments()) {
+            ByteBuffer buffer = map(path, FileChannel.MapMode.READ_ONLY, Files.size(path));
+            int position = SEGMENT_HEADER_SIZE;
+
+            while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0) { break; }
+
+                short typeId = buffer.getShort(position + Integer.BYTES);
+                long timestamp = buffer.getLong(position + Integer.BYTES + Short.BYTES);
+                int payloadStart = position + RECORD_HEADER_SIZE;
+                position = payloadStart + length;
+
+                if (timestamp < fromNanos || timestamp >= toNanos) { continue; }
+                CodecEntry<?> entry = codecsById.get(typeId);
+                if (entry == null) {
+                    throw new IllegalStateException("No codec registered for type ID " + typeId);
+                }
+
+                if (mode == ReplayMode.ORIGINAL_TIMING) {
+                    if (count == 0) {
+                        firstTimestamp = timestamp;
+                        replayStart = System.nanoTime();
+                    } else if (!awaitUntil(replayStart + (timestamp - firstTimestamp))) {
+                        return count;
+                    }
+                }
+
+                buffer.limit(position).position(payloadStart);
+                eventBus.publish(entry.codec.decode(buffer));
+                buffer.clear();
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /** Flushes the current segment to the storage. No events can be appended afterwards. */
+    @Override
+    public synchronized void close() {
+        if (closed) { return; }
+        closed = true;
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    // The payload length is written last, so that a partially written record
+    // looks like the end of the segment.
+    private <E extends Event> boolean write(MappedByteBuffer buffer, CodecEntry<E> entry, E event, long timestamp) {
+        int recordStart = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_SIZE) {
+            return false;
+        }
+
+        try {
+            buffer.position(recordStart + RECORD_HEADER_SIZE);
+            entry.codec.encode(event, buffer);
+        } catch (BufferOverflowException e) {
+            buffer.position(recordStart);
+            return false;
+        } catch (RuntimeException e) {
+            // the next record starts here, so the partially written payload must not
+            // be mistaken for its header
+            for (int i = recordStart + RECORD_HEADER_SIZE; i < buffer.position(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.position(recordStart);
+            throw e;
+        }
+
+        int length = buffer.position() - recordStart - RECORD_HEADER_SIZE;
+        if (length == 0) {
+            buffer.position(recordStart);
+            throw new IllegalStateException("Codec must write at least one byte: " + entry.codec);
+        }
+        buffer.putShort(recordStart + Integer.BYTES, entry.typeId);
+        buffer.putLong(recordStart + Integer.BYTES + Short.BYTES, timestamp);
+        buffer.putInt(recordStart, length);
+        return true;
+    }
+
+    private void rollSegment() {
+        if (segment != null) {
+            segment.force();
+        }
+
+        Path path = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentIndex++, SEGMENT_SUFFIX));
+        try {
+            segment = map(path, FileChannel.MapMode.READ_WRITE, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create journal segment " + path, e);
+        }
+        segment.putInt(SEGMENT_MAGIC);
+        segment.putInt(0);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long toEpochNanos(Instant instant) {
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+
+    private static int segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+        var options = mode == FileChannel.MapMode.READ_ONLY ?
+                new StandardOpenOption[] { StandardOpenOption.READ } :
+                new StandardOpenOption[] {
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW
+                };
+
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, size);
+            if (mode == FileChannel.MapMode.READ_ONLY
+                    && (size < SEGMENT_HEADER_SIZE || buffer.getInt(0) != SEGMENT_MAGIC)) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            return buffer;
+        }
+    }
+
+    private static boolean awaitUntil(long deadline) {
+        long delay;
+        while ((delay = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record CodecEntry<E extends Event>(Class<E> eventType, short typeId, EventCodec<E> codec) { }
+}
@@ -0,0 +1,24 @@
+package backbonefx.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Subscription level operator that controls when, and which of the published events
+ * are delivered to the subscriber, e.g. {@link Debounce} or {@link Throttle}.
+ *
+ * @see EventBus#subscribeWith(Class, Consumer, EventOperator)
+ */
+@FunctionalInterface
+public interface EventOperator {
+
+    /**
+     * Wraps the subscriber. If the returned consumer also implements {@link Subscription},
+     * it's cancelled once the subscription is removed, so that it can release its
+     * resources, e.g. discard scheduled deliveries.
+     *
+     * @param subscriber the subscriber to deliver events to.
+     * @param <E>        the event type class.
+     * @return the consumer that will be subscribed instead of the subscriber.
+     */
+    <E> Consumer<E> apply(Consumer<E> subscriber);
+}
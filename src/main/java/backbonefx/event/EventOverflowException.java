@@ -0,0 +1,12 @@
+package backbonefx.event;
+
+/**
+ * Thrown to the publisher when an event can't be added to a bounded subscriber
+ * queue, configured with the {@link OverflowPolicy#FAIL} policy.
+ */
+public class EventOverflowException extends RuntimeException {
+
+    public EventOverflowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package backbonefx.event;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of reusable events of a single type. Events are created lazily, when the
+ * pool is empty. Returned events that don't fit into the pool are left to the garbage
+ * collector. All operations are allocation-free, once the pool is warmed up.
+ */
+final class EventPool<E extends PooledEvent> {
+
+    private final Supplier<E> factory;
+    private final PooledEvent[] items;
+    private int size;
+
+    EventPool(Supplier<E> factory, int capacity) {
+        this.factory = factory;
+        this.items = new PooledEvent[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    E claim() {
+        E event = null;
+        synchronized (this) {
+            if (size > 0) {
+                event = (E) items[--size];
+                items[size] = null;
+            }
+        }
+
+        if (event == null) {
+            event = factory.get();
+        }
+        event.pool = this;
+        return event;
+    }
+
+    void release(PooledEvent event) {
+        event.pool = null;
+        event.reset();
+        synchronized (this) {
+            if (size < items.length) {
+                items[size++] = event;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package backbonefx.event;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns dense integer IDs to event classes on first use, so that per-class data can be
+ * stored in plain arrays instead of hash maps. IDs are global and never reused. Along with
+ * the ID, the closure of all super classes and interfaces is computed once per class.
+ */
+final class EventTypeIds {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private static final ClassValue<TypeInfo> TYPES = new ClassValue<>() {
+        @Override
+        protected TypeInfo computeValue(Class<?> type) {
+            return new TypeInfo(NEXT_ID.getAndIncrement(), supertypes(type));
+        }
+    };
+
+    private EventTypeIds() { }
+
+    /** Returns the ID of the specified class. */
+    static int idOf(Class<?> type) {
+        return TYPES.get(type).id;
+    }
+
+    /** Returns the class itself, and all its super classes and interfaces. */
+    static Class<?>[] supertypesOf(Class<?> type) {
+        return TYPES.get(type).supertypes;
+    }
+
+    private static Class<?>[] supertypes(Class<?> type) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        collect(type, result);
+        return result.toArray(Class<?>[]::new);
+    }
+
+    private static void collect(Class<?> type, Set<Class<?>> result) {
+        if (type == null || !result.add(type)) { return; }
+        collect(type.getSuperclass(), result);
+        for (Class<?> iface : type.getInterfaces()) {
+            collect(iface, result);
+        }
+    }
+
+    private record TypeInfo(int id, Class<?>[] supertypes) { }
+}
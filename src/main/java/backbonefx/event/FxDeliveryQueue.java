@@ -0,0 +1,91 @@
+package backbonefx.event;
+
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Collects events that must be delivered in the JavaFX application thread and
+ * drains them using a single {@link Platform#runLater(Runnable)} call, instead of
+ * scheduling a separate task for each event. A drain task stops after the time
+ * budget is exceeded and schedules the next one for the remaining events, so
+ * that a burst of events doesn't freeze the UI.
+ */
+final class FxDeliveryQueue implements Runnable {
+
+    static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(8);
+
+    private final Queue<Delivery<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor fxExecutor;
+    private final BooleanSupplier fxThreadCheck;
+    private final long timeBudget;
+
+    FxDeliveryQueue(Duration timeBudget) {
+        this(Platform::runLater, Platform::isFxApplicationThread, timeBudget);
+    }
+
+    FxDeliveryQueue(Executor fxExecutor, BooleanSupplier fxThreadCheck, Duration timeBudget) {
+        this.fxExecutor = fxExecutor;
+        this.fxThreadCheck = fxThreadCheck;
+        this.timeBudget = timeBudget.toNanos();
+    }
+
+    /**
+     * Delivers the event immediately if called from the FX thread and there are no
+     * pending events, otherwise puts it to the queue.
+     */
+    <E> void deliver(E event, Consumer<E> subscriber) {
+        if (queue.isEmpty() && fxThreadCheck.getAsBoolean()) {
+            accept(event, subscriber);
+            return;
+        }
+
+        queue.offer(new Delivery<>(event, subscriber));
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        try {
+            long deadline = System.nanoTime() + timeBudget;
+            Delivery<?> delivery;
+            while ((delivery = queue.poll()) != null) {
+                delivery.run();
+                if (System.nanoTime() - deadline > 0) { break; }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            fxExecutor.execute(this);
+        }
+    }
+
+    private static <E> void accept(E event, Consumer<E> subscriber) {
+        try {
+            subscriber.accept(event);
+        } catch (Exception e) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+
+    private record Delivery<E>(E event, Consumer<E> subscriber) {
+
+        void run() {
+            accept(event, subscriber);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package backbonefx.event;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time copy of a latency histogram.
+ *
+ * @param count      the number of recorded values.
+ * @param totalNanos the sum of all recorded values.
+ * @param maxNanos   the highest recorded value.
+ * @param buckets    the number of values per histogram bucket.
+ */
+public record LatencySnapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+
+    /** Returns the arithmetic mean of recorded values. */
+    public Duration mean() {
+        return Duration.ofNanos(count > 0 ? totalNanos / count : 0);
+    }
+
+    /** Returns the highest recorded value. */
+    public Duration max() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    /**
+     * Returns the value below which the specified percentage of recorded values fall.
+     * The result is the upper bound of the corresponding histogram bucket.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     */
+    public Duration percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        if (count == 0) { return Duration.ZERO; }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(LatencyHistogram.upperBoundOf(i), maxNanos));
+            }
+        }
+        return max();
+    }
+}
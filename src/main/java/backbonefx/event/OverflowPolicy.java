@@ -0,0 +1,17 @@
+package backbonefx.event;
+
+/** Determines what happens when an event is added to a bounded queue that is full. */
+public enum OverflowPolicy {
+
+    /** Blocks the publisher until the subscriber frees some space. */
+    BLOCK,
+
+    /** Discards the oldest pending event to make room for the new one. */
+    DROP_OLDEST,
+
+    /** Discards the new event. */
+    DROP_NEWEST,
+
+    /** Throws {@link EventOverflowException} to the publisher. */
+    FAIL
+}
@@ -0,0 +1,127 @@
+package backbonefx.event;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Event bus implementation that delivers events asynchronously, in order per
+ * {@link EventSource} and in parallel across sources.
+ * <p>
+ * Each event is routed to one of a fixed number of lanes by the hash of its source ID.
+ * A lane is a serial queue drained by the executor, at most one task per lane at a time.
+ * Thus, events of the same source are delivered in publishing order, while events of
+ * different sources are delivered in parallel, as far as the executor allows. Events
+ * without a source are routed by their class, so they're ordered per event class.
+ * <p>
+ * Unlike {@link AsyncEventBus}, lanes are shared by all subscribers, so a subscriber can
+ * be called concurrently from different lanes and must be thread-safe. Subscriber matching
+ * follows the {@link DefaultEventBus} rules.
+ */
+public final class PartitionedEventBus implements EventBus, AutoCloseable {
+
+    private final DefaultEventBus delegate = new DefaultEventBus();
+    private final SerialMailbox<Event>[] lanes;
+
+    /**
+     * Creates new event bus with one lane per available processor, that delivers
+     * events in the {@link AsyncEventBus#SHARED_POOL}.
+     */
+    public PartitionedEventBus() {
+        this(Runtime.getRuntime().availableProcessors(), AsyncEventBus.SHARED_POOL);
+    }
+
+    /**
+     * Creates new event bus.
+     *
+     * @param laneCount the number of lanes, i.e. the maximum number of events delivered in parallel.
+     * @param executor  the executor used to drain the lanes. To drain each lane in its own virtual
+     *                  thread on Java 21+ pass {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedEventBus(int laneCount, Executor executor) {
+        Objects.requireNonNull(executor, "Executor must not be null.");
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("Lane count must be positive.");
+        }
+
+        Consumer<Event> dispatcher = delegate::publish;
+        lanes = (SerialMailbox<Event>[]) new SerialMailbox<?>[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new SerialMailbox<>(dispatcher, executor);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        return delegate.subscribe(eventType, subscriber);
+    }
+
+    /**
+     * Subscribe to events of the particular event source.
+     *
+     * @see DefaultEventBus#subscribe(Class, EventSource, Consumer)
+     */
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType,
+                                                    EventSource source,
+                                                    Consumer<E> subscriber) {
+        return delegate.subscribe(eventType, source, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
+        delegate.unsubscribe(subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        delegate.unsubscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void publish(E event) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        lanes[laneOf(event)].accept(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The request event is published the same way as any other event.
+     */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        CompletableFuture<R> future = delegate.expectReply(event, replyType, timeout);
+        publish(event);
+        return future;
+    }
+
+    /** Discards all pending events. No events will be delivered after this call. */
+    @Override
+    public void close() {
+        for (SerialMailbox<Event> lane : lanes) {
+            lane.close();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private int laneOf(Event event) {
+        int hash = event instanceof AbstractEvent abstractEvent && abstractEvent.getSource() != null
+                ? abstractEvent.getSource().id().hashCode()
+                : event.getClass().hashCode();
+        // spread higher bits, as ID hash codes often differ in the last characters only
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, lanes.length);
+    }
+}
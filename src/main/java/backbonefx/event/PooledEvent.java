@@ -0,0 +1,21 @@
+package backbonefx.event;
+
+/**
+ * Base class for mutable events that are reused by the {@link PooledEventBus}, instead
+ * of creating a new instance for each publication. Subscribers must not keep references
+ * to pooled events, nor use them after returning from the consumer method, because the
+ * same instance will be filled with new data and published again.
+ */
+public abstract class PooledEvent implements Event {
+
+    EventPool<?> pool;
+
+    /** Creates new pooled event. Instances are normally created by the event pool. */
+    protected PooledEvent() { }
+
+    /**
+     * Clears the event state before returning the instance to the pool. It's called
+     * after all subscribers have consumed the event.
+     */
+    protected void reset() { }
+}
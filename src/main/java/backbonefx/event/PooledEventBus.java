@@ -0,0 +1,156 @@
+package backbonefx.event;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Synchronous event bus that allows to publish events without producing garbage.
+ * Instead of creating a new event, publisher claims a reusable instance from the
+ * pool, fills it and publishes. The event is returned to the pool automatically,
+ * after all subscribers have consumed it.
+ * <pre>{@code
+ * eventBus.registerPool(TickEvent.class, TickEvent::new, 16);
+ *
+ * TickEvent event = eventBus.claim(TickEvent.class);
+ * event.setPrice(price);
+ * eventBus.publish(event);
+ * }</pre>
+ * Events that don't extend {@link PooledEvent} can be published as well, they're
+ * delivered as usual. Subscriber matching follows the {@link DefaultEventBus} rules.
+ */
+public final class PooledEventBus implements EventBus {
+
+    public static final int DEFAULT_POOL_CAPACITY = 64;
+
+    private final DefaultEventBus delegate = new DefaultEventBus();
+    private final Map<Class<?>, EventPool<?>> pools = new ConcurrentHashMap<>();
+
+    /** Creates new event bus. */
+    public PooledEventBus() { }
+
+    /**
+     * Registers the pool for the specified event type. Registering the same event
+     * type again replaces the previous pool.
+     *
+     * @param eventType the event type.
+     * @param factory   the factory that creates new events when the pool is empty.
+     * @param capacity  the maximum number of idle events kept by the pool.
+     * @param <E>       the event type class.
+     */
+    public <E extends PooledEvent> void registerPool(Class<E> eventType, Supplier<E> factory, int capacity) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(factory, "Factory must not be null.");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive.");
+        }
+        pools.put(eventType, new EventPool<>(factory, capacity));
+    }
+
+    /**
+     * Takes an event instance from the pool. The instance must be published afterwards,
+     * otherwise it won't be returned to the pool.
+     *
+     * @param eventType the event type.
+     * @param <E>       the event type class.
+     * @throws IllegalArgumentException if there's no pool registered for the event type.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends PooledEvent> E claim(Class<E> eventType) {
+        EventPool<E> pool = (EventPool<E>) pools.get(eventType);
+        if (pool == null) {
+            throw new IllegalArgumentException("No event pool registered for " + eventType.getName());
+        }
+        return pool.claim();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        return delegate.subscribe(eventType, subscriber);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Operators that postpone delivery, such as {@link Debounce} or {@link Throttle},
+     * can't be used with pooled events, because they would keep the event after it has
+     * been reset and returned to the pool.
+     *
+     * @throws IllegalArgumentException if the operator postpones delivery and the
+     *                                  event type may match pooled events.
+     */
+    @Override
+    public <E extends Event> Subscription subscribeWith(Class<? extends E> eventType,
+                                                        Consumer<E> subscriber,
+                                                        EventOperator operator) {
+        Objects.requireNonNull(eventType, "Event type must be specified.");
+        Objects.requireNonNull(operator, "Operator must not be null.");
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+
+        boolean pooled = PooledEvent.class.isAssignableFrom(eventType)
+                || eventType.isAssignableFrom(PooledEvent.class);
+        EventOperator checked = pooled ? new ImmediateOperator(operator) : operator;
+        return delegate.subscribeWith(eventType, subscriber, checked);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
+        delegate.unsubscribe(subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        delegate.unsubscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        return delegate.request(event, replyType, timeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pooled events are returned to their pool once all subscribers have been called.
+     */
+    @Override
+    public <E extends Event> void publish(E event) {
+        try {
+            delegate.publish(event);
+        } finally {
+            if (event instanceof PooledEvent pooledEvent && pooledEvent.pool != null) {
+                pooledEvent.pool.release(pooledEvent);
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** Rejects operators that postpone delivery, so that they never see pooled events. */
+    private record ImmediateOperator(EventOperator operator) implements EventOperator {
+
+        @Override
+        public <E> Consumer<E> apply(Consumer<E> subscriber) {
+            Consumer<E> target = operator.apply(subscriber);
+            if (target instanceof TimedConsumer<E> timedConsumer) {
+                timedConsumer.cancel();
+                throw new IllegalArgumentException(
+                        "Operators that postpone delivery can't be used with pooled events."
+                );
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package backbonefx.event;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Event bus decorator that appends published events to the {@link EventJournal} before
+ * delivering them. Only events that have a codec registered in the journal are recorded,
+ * so recording can be enabled selectively for particular event types.
+ * <pre>{@code
+ * EventJournal journal = new EventJournal(Path.of("events"));
+ * journal.registerCodec(PriceEvent.class, 1, new PriceEventCodec());
+ * EventBus eventBus = new RecordingEventBus(new DefaultEventBus(), journal);
+ * }</pre>
+ * Recording never affects delivery. If an event can't be recorded, e.g. because the codec
+ * fails or the journal is closed, it's still delivered, the failure is passed to the uncaught
+ * exception handler and counted by {@link #getDroppedRecordCount()}.
+ */
+public final class RecordingEventBus implements EventBus {
+
+    private final EventBus delegate;
+    private final EventJournal journal;
+    private final LongAdder droppedRecords = new LongAdder();
+
+    /**
+     * Creates new recording event bus.
+     *
+     * @param delegate the event bus that delivers events to subscribers.
+     * @param journal  the journal to record events to.
+     */
+    public RecordingEventBus(EventBus delegate, EventJournal journal) {
+        this.delegate = Objects.requireNonNull(delegate, "Event bus must not be null.");
+        this.journal = Objects.requireNonNull(journal, "Journal must not be null.");
+    }
+
+    /** Returns the journal events are recorded to. */
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /** Returns the number of events that were delivered, but couldn't be recorded. */
+    public long getDroppedRecordCount() {
+        return droppedRecords.sum();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        return delegate.subscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
+        delegate.unsubscribe(subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        delegate.unsubscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void publish(E event) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        record(event);
+        delegate.publish(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All events are recorded before any of them is delivered, so that the delegate
+     * can still deliver them as a batch.
+     */
+    @Override
+    public <E extends Event> void publishAll(Collection<? extends E> events) {
+        Objects.requireNonNull(events, "Events must not be null.");
+        for (E event : events) {
+            Objects.requireNonNull(event, "Event must not be null.");
+        }
+
+        for (E event : events) {
+            record(event);
+        }
+        delegate.publishAll(events);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The request event is recorded before it's published, replies are recorded
+     * if they're published to this event bus.
+     */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        record(event);
+        return delegate.request(event, replyType, timeout);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void record(Event event) {
+        try {
+            journal.append(event);
+        } catch (RuntimeException e) {
+            droppedRecords.increment();
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber entry of the {@link DefaultEventBus}. The subscriber is what identifies
+ * the registration for the purpose of unsubscribing, while the target is what's
+ * actually called when an event is delivered. They only differ for registrations
+ * that wrap user subscribers, e.g. into a mailbox.
+ * <p>
+ * Optional attributes are set using the builder-like methods, which must only be
+ * called before the registration is passed to the event bus.
+ */
+final class Registration<E> implements Subscription {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    final DefaultEventBus eventBus;
+    final Class<?> eventType;
+    final Consumer<?> subscriber;
+    final Consumer<E> target;
+    final long order = SEQUENCE.getAndIncrement();
+
+    int priority;
+    boolean fxBound;
+    @Nullable String sourceId;
+    private @Nullable Runnable onRemove;
+    private volatile boolean removed;
+
+    Registration(DefaultEventBus eventBus, Class<?> eventType, Consumer<?> subscriber, Consumer<E> target) {
+        this.eventBus = eventBus;
+        this.eventType = eventType;
+        this.subscriber = subscriber;
+        this.target = target;
+    }
+
+    /** Sets the priority, subscribers with higher priority are called first. */
+    Registration<E> withPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /** Delivers events in the FX application thread. */
+    Registration<E> onFxThread() {
+        this.fxBound = true;
+        return this;
+    }
+
+    /** Only delivers events sent by the specified event source. */
+    Registration<E> filterBySource(EventSource source) {
+        this.sourceId = source.id();
+        return this;
+    }
+
+    /** Sets the callback that will be called once the registration was removed. */
+    Registration<E> onRemove(Runnable onRemove) {
+        this.onRemove = onRemove;
+        return this;
+    }
+
+    /**
+     * Returns the key that identifies the registration among the others of the same
+     * event type. A subscriber can be registered once per event source filter.
+     */
+    Object key() {
+        return sourceId != null ? new SourceKey(subscriber, sourceId) : subscriber;
+    }
+
+    @Override
+    public void cancel() {
+        eventBus.remove(this);
+    }
+
+    /** Called by the event bus once the registration was removed. */
+    void removed() {
+        removed = true;
+        if (onRemove != null) {
+            onRemove.run();
+        }
+    }
+
+    /** Returns true if the registration was removed from the event bus. */
+    boolean isRemoved() {
+        return removed;
+    }
+
+    private record SourceKey(Consumer<?> subscriber, String sourceId) { }
+}
@@ -0,0 +1,16 @@
+package backbonefx.event;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Event that is sent in reply to a request event. It's correlated with the request
+ * by the request event ID.
+ *
+ * @see EventBus#request(AbstractEvent, Class, Duration)
+ */
+public interface ReplyEvent extends Event {
+
+    /** Returns the ID of the event this event replies to. */
+    UUID getRequestId();
+}
@@ -0,0 +1,347 @@
+package backbonefx.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Event bus implementation for high-rate event streams. Published events are written
+ * into a preallocated ring buffer and consumed by a single dispatcher thread, which
+ * takes all available events at once and delivers them to subscribers in batches.
+ * Subscribers implementing {@link BatchConsumer} receive the whole batch with a single
+ * call, others are called once per event.
+ * <p>
+ * Events are delivered in publishing order. If the buffer is full, the publisher waits
+ * until the dispatcher frees some space, using the configured {@link WaitStrategy}.
+ * Hence, subscribers must not publish events to the same bus, because that can
+ * lead to a deadlock when the buffer is full.
+ * <p>
+ * Subscriber matching follows the {@link DefaultEventBus} rules. The bus must be
+ * closed after use to stop the dispatcher thread. With {@link ProducerType#MULTI} the bus
+ * can be closed while other threads are publishing: each event is either delivered,
+ * or its publisher gets {@link IllegalStateException}.
+ */
+@SuppressWarnings("unchecked")
+public final class RingBufferEventBus implements EventBus, AutoCloseable {
+
+    /** Determines how publishers claim the ring buffer slots. */
+    public enum ProducerType {
+
+        /** Only one thread publishes events, which allows to avoid atomic operations. */
+        SINGLE,
+
+        /** Any number of threads can publish events concurrently. */
+        MULTI
+    }
+
+    /** Determines how threads wait for the ring buffer slots to become available. */
+    public enum WaitStrategy {
+
+        /** Lowest latency, but occupies a CPU core entirely. */
+        BUSY_SPIN {
+            @Override
+            void idle() {
+                Thread.onSpinWait();
+            }
+        },
+
+        /** Low latency, gives up the CPU to other threads when it's needed. */
+        YIELD {
+            @Override
+            void idle() {
+                Thread.yield();
+            }
+        },
+
+        /**
+         * Higher latency, but no CPU usage when the bus is idle. The dispatcher parks until
+         * a publisher wakes it up, publishers wait for free slots by parking briefly.
+         */
+        PARK {
+            @Override
+            void idle() {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        };
+
+        abstract void idle();
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final long PARK_NANOS = 50_000;
+    // added to the claim counter on close, so that later claims can be told apart
+    private static final long CLOSED_OFFSET = 1L << 62;
+
+    private final DefaultEventBus registry = new DefaultEventBus();
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+
+    // MULTI: claim counter, availability flags contain the round number of the published slot
+    private final AtomicLong claimSequence = new AtomicLong(-1);
+    private final AtomicIntegerArray available;
+    // SINGLE: claim counter is only accessed by the producer thread
+    private long singleClaimSequence = -1;
+    private final AtomicLong publishedSequence = new AtomicLong(-1);
+
+    private final AtomicLong consumedSequence = new AtomicLong(-1);
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    // PARK: set by the dispatcher before it parks, so that publishers know to wake it up
+    private volatile boolean dispatcherParked;
+    // MULTI: the last sequence claimed before close, the dispatcher drains up to it
+    private volatile long closedSequence = Long.MAX_VALUE;
+
+    /**
+     * Creates new event bus with default buffer size that supports multiple publishers
+     * and parks the dispatcher when there are no events.
+     */
+    public RingBufferEventBus() {
+        this(DEFAULT_BUFFER_SIZE, ProducerType.MULTI, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates new event bus.
+     *
+     * @param bufferSize   the ring buffer size, must be a power of 2.
+     * @param producerType the publishing mode. If {@link ProducerType#SINGLE} is specified,
+     *                     the caller is responsible for publishing events from a single thread.
+     * @param waitStrategy the strategy that is used by publishers and dispatcher to wait for
+     *                     the buffer slots to become available.
+     */
+    public RingBufferEventBus(int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2.");
+        }
+        this.producerType = Objects.requireNonNull(producerType, "Producer type must not be null.");
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "Wait strategy must not be null.");
+
+        this.entries = new Object[bufferSize];
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.available = new AtomicIntegerArray(producerType == ProducerType.MULTI ? bufferSize : 0);
+        for (int i = 0; i < available.length(); i++) {
+            available.set(i, -1);
+        }
+
+        this.dispatcher = new Thread(this::dispatch, "ring-buffer-event-bus");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> Subscription subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        return registry.subscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Consumer<E> subscriber) {
+        registry.unsubscribe(subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
+        registry.unsubscribe(eventType, subscriber);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends Event> void publish(E event) {
+        Objects.requireNonNull(event, "Event must not be null.");
+        if (!running) {
+            throw new IllegalStateException("Event bus is closed.");
+        }
+
+        if (producerType == ProducerType.SINGLE) {
+            long sequence = ++singleClaimSequence;
+            awaitCapacity(sequence);
+            entries[index(sequence)] = event;
+            if (waitStrategy == WaitStrategy.PARK) {
+                // a volatile write, so that it can't be reordered with the parked flag check
+                publishedSequence.set(sequence);
+                wakeDispatcher();
+            } else {
+                publishedSequence.lazySet(sequence);
+            }
+        } else {
+            long sequence = claimSequence.incrementAndGet();
+            if (sequence >= CLOSED_OFFSET) {
+                throw new IllegalStateException("Event bus is closed.");
+            }
+            awaitCapacity(sequence);
+            entries[index(sequence)] = event;
+            if (waitStrategy == WaitStrategy.PARK) {
+                available.set(index(sequence), round(sequence));
+                wakeDispatcher();
+            } else {
+                available.lazySet(index(sequence), round(sequence));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The request event is published the same way as any other event.
+     */
+    @Override
+    public <R extends ReplyEvent> CompletableFuture<R> request(AbstractEvent event,
+                                                             Class<R> replyType,
+                                                             Duration timeout) {
+        CompletableFuture<R> future = registry.expectReply(event, replyType, timeout);
+        publish(event);
+        return future;
+    }
+
+    /**
+     * Stops the dispatcher thread. All events published before this call
+     * are delivered before the method returns, unless it's called by a subscriber.
+     * With {@link ProducerType#SINGLE} the publisher must have stopped publishing
+     * before this call.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (running) {
+                if (producerType == ProducerType.MULTI) {
+                    // publishers that claimed a slot before this point will fill it
+                    closedSequence = claimSequence.getAndAdd(CLOSED_OFFSET);
+                }
+                running = false;
+                LockSupport.unpark(dispatcher);
+            }
+        }
+        if (Thread.currentThread() == dispatcher) {
+            // the dispatcher stops once the subscriber returns, it can't wait for itself
+            return;
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - entries.length;
+        while (wrapPoint > consumedSequence.get()) {
+            waitStrategy.idle();
+        }
+    }
+
+    private void dispatch() {
+        Map<BatchConsumer<Event>, List<Event>> batches = new IdentityHashMap<>();
+        long nextSequence = 0;
+
+        while (true) {
+            long availableSequence = getHighestPublished(nextSequence);
+            if (availableSequence < nextSequence) {
+                if (!running && (producerType == ProducerType.SINGLE || nextSequence > closedSequence)) { break; }
+                if (waitStrategy == WaitStrategy.PARK) {
+                    park(nextSequence);
+                } else {
+                    waitStrategy.idle();
+                }
+                continue;
+            }
+
+            for (long sequence = nextSequence; sequence <= availableSequence; sequence++) {
+                int index = index(sequence);
+                Event event = (Event) entries[index];
+                entries[index] = null;
+                dispatch(event, batches);
+            }
+            flush(batches);
+
+            consumedSequence.lazySet(availableSequence);
+            nextSequence = availableSequence + 1;
+        }
+    }
+
+    private void park(long nextSequence) {
+        dispatcherParked = true;
+        // publishers that didn't see the flag yet have published already
+        if (running && getHighestPublished(nextSequence) < nextSequence) {
+            LockSupport.park(this);
+        }
+        dispatcherParked = false;
+    }
+
+    private void wakeDispatcher() {
+        if (dispatcherParked) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private long getHighestPublished(long nextSequence) {
+        if (producerType == ProducerType.SINGLE) {
+            return publishedSequence.get();
+        }
+
+        long sequence = nextSequence;
+        while (available.get(index(sequence)) == round(sequence)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private void dispatch(Event event, Map<BatchConsumer<Event>, List<Event>> batches) {
+        if (event instanceof ReplyEvent reply) {
+            registry.completeRequest(reply);
+        }
+        for (Registration<?> registration : registry.getSubscribers(event.getClass())) {
+            Consumer<?> subscriber = registration.target;
+            if (subscriber instanceof BatchConsumer<?> batchConsumer) {
+                batches.computeIfAbsent((BatchConsumer<Event>) batchConsumer, c -> new ArrayList<>()).add(event);
+            } else {
+                try {
+                    ((Consumer<Event>) subscriber).accept(event);
+                } catch (Exception e) {
+                    handleException(e);
+                }
+            }
+        }
+    }
+
+    private void flush(Map<BatchConsumer<Event>, List<Event>> batches) {
+        if (batches.isEmpty()) { return; }
+
+        for (Map.Entry<BatchConsumer<Event>, List<Event>> entry : batches.entrySet()) {
+            try {
+                entry.getKey().acceptBatch(entry.getValue());
+            } catch (Exception e) {
+                handleException(e);
+            }
+        }
+        batches.clear();
+    }
+
+    private void handleException(Exception e) {
+        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private int round(long sequence) {
+        return (int) (sequence >>> indexShift);
+    }
+}
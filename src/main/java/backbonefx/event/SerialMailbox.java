@@ -0,0 +1,99 @@
+package backbonefx.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Buffers events for a single subscriber and delivers them one by one using the
+ * given executor. At most one drain task is scheduled at a time, so the subscriber
+ * observes events in publishing order and never runs concurrently with itself, no
+ * matter how many threads the executor has.
+ */
+class SerialMailbox<E> implements Consumer<E>, Runnable {
+
+    // limits the number of events delivered by a single drain task,
+    // so that a busy subscriber doesn't monopolize a pooled thread
+    static final int MAX_BATCH_SIZE = 256;
+
+    protected final Consumer<E> subscriber;
+    protected final Executor executor;
+    private final Queue<E> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    // the number of bus registrations that deliver to this mailbox,
+    // guarded by the event bus mailbox map
+    int references;
+
+    SerialMailbox(Consumer<E> subscriber, Executor executor) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+    }
+
+    @Override
+    public void accept(E event) {
+        if (closed) { return; }
+        enqueue(event);
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        try {
+            E event;
+            int count = 0;
+            while (!closed && count++ < MAX_BATCH_SIZE && (event = dequeue()) != null) {
+                deliver(event);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!closed && hasPending()) {
+                schedule();
+            }
+        }
+    }
+
+    /** Discards all pending events. No events will be accepted after this call. */
+    void close() {
+        closed = true;
+        discardPending();
+    }
+
+    protected void enqueue(E event) {
+        queue.offer(event);
+    }
+
+    protected E dequeue() {
+        return queue.poll();
+    }
+
+    protected boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    protected void discardPending() {
+        queue.clear();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void deliver(E event) {
+        try {
+            subscriber.accept(event);
+        } catch (Exception e) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package backbonefx.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an instance method as an event handler. The method must have a single parameter,
+ * which type is a subtype of {@link Event}. The parameter type is used as the event type
+ * to subscribe to.
+ *
+ * @see EventHandlers#subscribe(EventBus, Object)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe { }
@@ -0,0 +1,18 @@
+package backbonefx.event;
+
+/**
+ * Represents a single subscriber registration returned by
+ * {@link EventBus#subscribe(Class, java.util.function.Consumer)}. Cancelling the subscription
+ * is the cheapest way to unsubscribe, because it removes exactly this registration
+ * without searching for it.
+ */
+@FunctionalInterface
+public interface Subscription {
+
+    /**
+     * Removes the registration from the event bus. Events that are published after this
+     * call won't be delivered to the subscriber. Calling this method more than once
+     * has no effect.
+     */
+    void cancel();
+}
@@ -0,0 +1,101 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Delivers at most one event per interval. The first event is delivered immediately,
+ * in the publisher thread, and the latest of the events published during the interval
+ * is delivered at its end, in the common fork-join pool. Thus, the subscriber always
+ * observes the final state. If {@link #onFxThread()} is specified, all events are
+ * delivered in the FX application thread.
+ */
+public final class Throttle implements EventOperator {
+
+    private final long intervalNanos;
+    private final @Nullable Executor executor;
+
+    private Throttle(long intervalNanos, @Nullable Executor executor) {
+        this.intervalNanos = intervalNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates new throttle operator.
+     *
+     * @param interval the minimum time between two deliveries.
+     */
+    public static Throttle of(Duration interval) {
+        Objects.requireNonNull(interval, "Interval must not be null.");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+        return new Throttle(interval.toNanos(), null);
+    }
+
+    /** Returns the same operator that delivers events in the FX application thread. */
+    public Throttle onFxThread() {
+        return new Throttle(intervalNanos, TimedConsumer.FX_THREAD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E> Consumer<E> apply(Consumer<E> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber must not be null.");
+        return new Throttler<>(subscriber, executor, intervalNanos);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static final class Throttler<E> extends TimedConsumer<E> {
+
+        private final long intervalNanos;
+        private @Nullable E pending; // guarded by this
+
+        Throttler(Consumer<E> subscriber, @Nullable Executor executor, long intervalNanos) {
+            super(subscriber, executor);
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void accept(E event) {
+            synchronized (this) {
+                if (isCancelled()) { return; }
+                if (isScheduled()) {
+                    pending = event;
+                    return;
+                }
+                schedule(intervalNanos);
+            }
+            deliverNow(event);
+        }
+
+        @Override
+        public void run() {
+            E event;
+            synchronized (this) {
+                fired();
+                if (isCancelled()) { return; }
+                event = pending;
+                pending = null;
+                // keep the interval running only if there was something to deliver
+                if (event != null) {
+                    schedule(intervalNanos);
+                }
+            }
+            if (event != null) {
+                deliver(event);
+            }
+        }
+
+        @Override
+        public synchronized void cancel() {
+            super.cancel();
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package backbonefx.event;
+
+import javafx.application.Platform;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Base class for the operators that postpone delivery. All instances share the
+ * {@link TimerWheel#SHARED} timer thread, which only decides when to deliver. The events
+ * themselves are delivered in the common fork-join pool or in the FX application thread,
+ * one at a time per subscription.
+ */
+abstract class TimedConsumer<E> implements Consumer<E>, Subscription, Runnable {
+
+    /** Delivers events in the FX application thread, directly if it's already the current one. */
+    static final Executor FX_THREAD = command -> {
+        if (Platform.isFxApplicationThread()) {
+            command.run();
+        } else {
+            Platform.runLater(command);
+        }
+    };
+
+    protected final Consumer<E> subscriber;
+    private final @Nullable Executor executor;
+    private final SerialMailbox<E> mailbox;
+    private TimerWheel.@Nullable Timeout scheduled; // guarded by this
+    private boolean cancelled; // guarded by this
+
+    TimedConsumer(Consumer<E> subscriber, @Nullable Executor executor) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.mailbox = new SerialMailbox<>(subscriber, executor != null ? executor : ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public synchronized void cancel() {
+        cancelled = true;
+        if (scheduled != null) {
+            scheduled.cancel();
+            scheduled = null;
+        }
+        mailbox.close();
+    }
+
+    /** Returns true if the subscription was cancelled, must be called under the lock. */
+    protected boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Returns true if the scheduled task has not fired yet. */
+    protected boolean isScheduled() {
+        return scheduled != null;
+    }
+
+    /** Schedules {@link #run()} after the specified delay, must be called under the lock. */
+    protected void schedule(long delayNanos) {
+        if (!cancelled) {
+            scheduled = TimerWheel.SHARED.schedule(this, delayNanos);
+        }
+    }
+
+    /** Marks the scheduled task as fired, must be called under the lock by {@link #run()}. */
+    protected void fired() {
+        scheduled = null;
+    }
+
+    /** Delivers the event in the configured executor or the common pool, after the previous one. */
+    protected void deliver(E event) {
+        mailbox.accept(event);
+    }
+
+    /** Delivers the event in the configured executor or the current thread. */
+    protected void deliverNow(E event) {
+        if (executor != null) {
+            mailbox.accept(event);
+            return;
+        }
+        try {
+            subscriber.accept(event);
+        } catch (Exception e) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+}
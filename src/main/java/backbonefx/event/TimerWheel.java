@@ -0,0 +1,156 @@
+package backbonefx.event;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel for a large number of timeouts that are mostly cancelled before
+ * they expire. Scheduling and cancelling are O(1), the precision is limited by the tick
+ * duration. A single daemon thread advances the wheel and runs expired tasks, so the
+ * tasks must be short. The thread parks when there are no pending timeouts.
+ */
+final class TimerWheel {
+
+    /** The wheel shared by all event buses. */
+    static final TimerWheel SHARED = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 512);
+
+    private final long tickNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Thread worker;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickNanos, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two.");
+        }
+        this.tickNanos = tickNanos;
+        this.mask = wheelSize - 1;
+        this.buckets = (List<Timeout>[]) new List<?>[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Schedules the task to run after the specified delay.
+     *
+     * @return the handle that can be used to cancel the task.
+     */
+    Timeout schedule(Runnable task, long delayNanos) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, delayNanos));
+        added.offer(timeout);
+        if (started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::run, "backbonefx-timer-wheel");
+            thread.setDaemon(true);
+            worker = thread;
+            thread.start();
+        } else {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    @SuppressWarnings("InfiniteLoopStatement")
+    private void run() {
+        int pending = 0;
+        long start = System.nanoTime();
+        long tick = 0;
+
+        while (true) {
+            if (pending == 0 && added.isEmpty()) {
+                // nothing to wait for, sleep until a new timeout is added
+                LockSupport.park(this);
+                start = System.nanoTime();
+                tick = 0;
+                continue;
+            }
+
+            long tickDeadline = start + (tick + 1) * tickNanos;
+            long sleepNanos;
+            while ((sleepNanos = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+
+            Timeout timeout;
+            while ((timeout = added.poll()) != null) {
+                if (timeout.isCancelled()) { continue; }
+                long expireTick = Math.max(tick, (timeout.deadline - start + tickNanos - 1) / tickNanos);
+                timeout.rounds = (expireTick - tick) / buckets.length;
+                buckets[(int) (expireTick & mask)].add(timeout);
+                pending++;
+            }
+
+            List<Timeout> expired = null;
+            for (Iterator<Timeout> it = buckets[(int) (tick & mask)].iterator(); it.hasNext(); ) {
+                timeout = it.next();
+                if (timeout.isCancelled()) {
+                    it.remove();
+                    pending--;
+                } else if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                } else {
+                    it.remove();
+                    pending--;
+                    if (expired == null) { expired = new ArrayList<>(); }
+                    expired.add(timeout);
+                }
+            }
+
+            if (expired != null) {
+                for (Timeout t : expired) {
+                    t.expire();
+                }
+            }
+            tick++;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    static final class Timeout {
+
+        // cleared on cancel, so that the task and everything it captures can be collected
+        private volatile @Nullable Runnable task;
+        private final long deadline;
+        private long rounds; // accessed by the worker thread only
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task and releases the reference to it. The wheel discards
+         * the timeout itself lazily when its bucket is reached.
+         */
+        void cancel() {
+            task = null;
+        }
+
+        private boolean isCancelled() {
+            return task == null;
+        }
+
+        private void expire() {
+            Runnable task = this.task;
+            if (task == null) { return; }
+            this.task = null;
+            try {
+                task.run();
+            } catch (Exception e) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+}
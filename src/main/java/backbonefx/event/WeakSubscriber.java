@@ -0,0 +1,39 @@
+package backbonefx.event;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber that only weakly references its owner. Once the owner is garbage collected,
+ * the subscriber cancels its own registration, either on the next delivered event, or
+ * when the event bus polls the reference queue, whichever comes first.
+ */
+final class WeakSubscriber<O, E> extends WeakReference<O> implements Consumer<E> {
+
+    private final BiConsumer<? super O, E> handler;
+    volatile Registration<E> registration;
+
+    WeakSubscriber(O owner, BiConsumer<? super O, E> handler, ReferenceQueue<Object> queue) {
+        super(owner, queue);
+        this.handler = handler;
+    }
+
+    @Override
+    public void accept(E event) {
+        O owner = get();
+        if (owner != null) {
+            handler.accept(owner, event);
+        } else {
+            cancel();
+        }
+    }
+
+    void cancel() {
+        Registration<E> registration = this.registration;
+        if (registration != null) {
+            registration.cancel();
+        }
+    }
+}
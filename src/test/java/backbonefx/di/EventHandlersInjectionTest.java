@@ -0,0 +1,107 @@
+package backbonefx.di;
+
+import backbonefx.event.AbstractEvent;
+import backbonefx.event.DefaultEventBus;
+import backbonefx.event.EventBus;
+import backbonefx.event.Subscribe;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventHandlersInjectionTest {
+
+    @Test
+    public void testHandlersAreSubscribedAfterInit() {
+        Feather feather = Feather.with(new EventBusModule()).withEventHandlers();
+        Listener listener = feather.instance(Listener.class);
+        PingEvent event = new PingEvent();
+        feather.instance(EventBus.class).publish(event);
+
+        assertTrue(listener.initialized);
+        assertEquals(List.of(event), listener.events);
+    }
+
+    @Test
+    public void testEventBusDoesNotKeepNonSingletons() throws InterruptedException {
+        Feather feather = Feather.with(new EventBusModule()).withEventHandlers();
+        Listener listener = feather.instance(Listener.class);
+        WeakReference<Listener> listenerRef = new WeakReference<>(listener);
+
+        //noinspection UnusedAssignment
+        listener = null;
+        for (int i = 0; i < 50 && listenerRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(listenerRef.get());
+    }
+
+    @Test
+    public void testHandlersAreNotSubscribedByDefault() {
+        Feather feather = Feather.with(new EventBusModule());
+        Listener listener = feather.instance(Listener.class);
+        feather.instance(EventBus.class).publish(new PingEvent());
+
+        assertEquals(List.of(), listener.events);
+    }
+
+    @Test
+    public void testNonSingletonEventBusIsRejected() {
+        Feather feather = Feather.with(new PrototypeEventBusModule()).withEventHandlers();
+        assertThrows(FeatherException.class, () -> feather.instance(Listener.class));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    public static class EventBusModule {
+
+        @Provides
+        @Singleton
+        EventBus eventBus() {
+            return new DefaultEventBus();
+        }
+    }
+
+    public static class PrototypeEventBusModule {
+
+        @Provides
+        EventBus eventBus() {
+            return new DefaultEventBus();
+        }
+    }
+
+    public static class Listener implements Initializable {
+
+        final List<PingEvent> events = new ArrayList<>();
+        boolean initialized;
+
+        @Inject
+        public Listener() { }
+
+        @Override
+        public void init() {
+            initialized = true;
+        }
+
+        @Subscribe
+        void onPing(PingEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class PingEvent extends AbstractEvent {
+
+        public PingEvent() {
+            super();
+        }
+    }
+}
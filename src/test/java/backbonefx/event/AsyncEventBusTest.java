@@ -0,0 +1,273 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncEventBusTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(AsyncEventBusTest.class.getCanonicalName());
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final AsyncEventBus eventBus = new AsyncEventBus(executor);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSubscribeWithNullExecutorThrowsException() {
+        assertThatThrownBy(() -> eventBus.subscribe(IntegerEvent.class, System.out::println, null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testCallerThreadDeliveryIsSynchronous() {
+        List<IntegerEvent> events = new ArrayList<>();
+        eventBus.subscribe(IntegerEvent.class, events::add, AsyncEventBus.CALLER_THREAD);
+
+        IntegerEvent ie0 = new IntegerEvent(1);
+        eventBus.publish(ie0);
+
+        assertThat(events).containsExactly(ie0);
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockPublisher() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        eventBus.subscribe(IntegerEvent.class, e -> {
+            await(release);
+            delivered.countDown();
+        });
+        eventBus.subscribe(IntegerEvent.class, e -> delivered.countDown());
+
+        eventBus.publish(new IntegerEvent(1));
+        // publisher returned while the first subscriber is still blocked
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isFalse();
+        release.countDown();
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testDeliveryOrderIsPreservedPerSubscriber() throws InterruptedException {
+        int count = 10_000;
+        CountDownLatch done = new CountDownLatch(2);
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        eventBus.subscribe(IntegerEvent.class, recorder(first, done, count));
+        eventBus.subscribe(IntegerEvent.class, recorder(second, done, count), AsyncEventBus.NEW_THREAD);
+
+        for (int i = 0; i < count; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(first).isSorted().hasSize(count);
+        assertThat(second).isSorted().hasSize(count);
+    }
+
+    @Test
+    public void testUnsubscribe() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<IntegerEvent> events = Collections.synchronizedList(new ArrayList<>());
+        Consumer<IntegerEvent> subscriber = e -> {
+            events.add(e);
+            delivered.countDown();
+        };
+        eventBus.subscribe(IntegerEvent.class, subscriber);
+
+        IntegerEvent ie0 = new IntegerEvent(1);
+        eventBus.publish(ie0);
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        eventBus.unsubscribe(subscriber);
+        eventBus.publish(new IntegerEvent(2));
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(events).containsExactly(ie0);
+    }
+
+    @Test
+    public void testSubscriptionCancelDiscardsPendingEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<IntegerEvent> events = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        singleThread.execute(() -> await(release));
+
+        Subscription subscription = eventBus.subscribe(IntegerEvent.class, events::add, singleThread);
+        eventBus.publish(new IntegerEvent(1));
+        subscription.cancel();
+
+        release.countDown();
+        singleThread.shutdown();
+        assertThat(singleThread.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    public void testConflatingSubscriberReceivesLatestEventPerKey() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<IntegerEvent> events = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        // occupy the executor to accumulate pending events
+        singleThread.execute(() -> await(release));
+
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+        IntegerEvent foo0 = new IntegerEvent(foo, 0);
+        IntegerEvent bar0 = new IntegerEvent(bar, 1);
+        IntegerEvent foo1 = new IntegerEvent(foo, 2);
+        IntegerEvent foo2 = new IntegerEvent(foo, 3);
+        eventBus.subscribeConflated(IntegerEvent.class, AsyncEventBus.CONFLATE_BY_SOURCE, events::add, singleThread);
+        List.of(foo0, bar0, foo1, foo2).forEach(eventBus::publish);
+
+        release.countDown();
+        singleThread.shutdown();
+        assertThat(singleThread.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(events).containsExactly(foo2, bar0);
+    }
+
+    @Test
+    public void testSubscribeWithAnotherExecutorThrowsException() {
+        Consumer<Event> subscriber = e -> { };
+        eventBus.subscribe(IntegerEvent.class, subscriber, AsyncEventBus.CALLER_THREAD);
+
+        assertThatThrownBy(() -> eventBus.subscribe(TestEvent.class, subscriber, executor))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> eventBus.subscribeConflated(
+                TestEvent.class, AsyncEventBus.CONFLATE_BY_TYPE, subscriber, AsyncEventBus.CALLER_THREAD
+        )).isInstanceOf(IllegalStateException.class);
+
+        // the same executor and mailbox kind reuse the existing mailbox
+        eventBus.subscribe(TestEvent.class, subscriber, AsyncEventBus.CALLER_THREAD);
+    }
+
+    @Test
+    public void testBoundedSubscriptionOverflowPolicies() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        singleThread.execute(() -> await(release));
+
+        List<Integer> oldestDropped = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> newestDropped = Collections.synchronizedList(new ArrayList<>());
+        BoundedSubscription dropOldest = eventBus.subscribeBounded(
+                IntegerEvent.class, e -> oldestDropped.add(e.getValue()), 2, OverflowPolicy.DROP_OLDEST, singleThread
+        );
+        BoundedSubscription dropNewest = eventBus.subscribeBounded(
+                IntegerEvent.class, e -> newestDropped.add(e.getValue()), 2, OverflowPolicy.DROP_NEWEST, singleThread
+        );
+        for (int i = 0; i < 5; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+
+        assertThat(dropOldest.getQueueSize()).isEqualTo(2);
+        assertThat(dropOldest.getCapacity()).isEqualTo(2);
+        assertThat(dropOldest.getDroppedCount()).isEqualTo(3);
+        assertThat(dropNewest.getDroppedCount()).isEqualTo(3);
+
+        release.countDown();
+        singleThread.shutdown();
+        assertThat(singleThread.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(oldestDropped).containsExactly(3, 4);
+        assertThat(newestDropped).containsExactly(0, 1);
+        assertThat(dropOldest.getQueueSize()).isZero();
+    }
+
+    @Test
+    public void testBoundedSubscriptionFailsFast() {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        singleThread.execute(() -> await(release));
+
+        try {
+            BoundedSubscription subscription = eventBus.subscribeBounded(
+                    IntegerEvent.class, e -> { }, 1, OverflowPolicy.FAIL, singleThread
+            );
+            eventBus.publish(new IntegerEvent(0));
+            assertThatThrownBy(() -> eventBus.publish(new IntegerEvent(1)))
+                    .isInstanceOf(EventOverflowException.class);
+            assertThat(subscription.getDroppedCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            singleThread.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentBoundedAndUnboundedSubscriptions() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            Consumer<IntegerEvent> subscriber = e -> { };
+            CountDownLatch start = new CountDownLatch(1);
+            Future<Subscription> unbounded = executor.submit(() -> {
+                await(start);
+                return eventBus.subscribe(IntegerEvent.class, subscriber, AsyncEventBus.CALLER_THREAD);
+            });
+            Future<BoundedSubscription> bounded = executor.submit(() -> {
+                await(start);
+                return eventBus.subscribeBounded(
+                        IntegerEvent.class, subscriber, 1, OverflowPolicy.DROP_NEWEST, AsyncEventBus.CALLER_THREAD
+                );
+            });
+            start.countDown();
+
+            // exactly one of them wins, the other one is rejected
+            int rejected = 0;
+            for (Future<?> future : List.of(unbounded, bounded)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                    rejected++;
+                }
+            }
+            assertThat(rejected).isEqualTo(1);
+            eventBus.unsubscribe(subscriber);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static Consumer<IntegerEvent> recorder(List<Integer> values,
+                                                   CountDownLatch done,
+                                                   int count) {
+        return e -> {
+            values.add(e.getValue());
+            if (values.size() == count) {
+                done.countDown();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+
+        public IntegerEvent(EventSource source, Integer value) {
+            super(source, value);
+        }
+    }
+}
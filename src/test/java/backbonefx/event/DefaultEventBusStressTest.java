@@ -0,0 +1,142 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultEventBusStressTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(DefaultEventBusStressTest.class.getCanonicalName());
+    private static final int THREADS = 8;
+
+    @Test
+    public void testConcurrentSubscribeToNewTypeLosesNoSubscribers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 50; round++) {
+                DefaultEventBus eventBus = new DefaultEventBus();
+                CyclicBarrier barrier = new CyclicBarrier(THREADS);
+                LongAdder received = new LongAdder();
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        return eventBus.subscribe(TickEvent.class, e -> received.increment());
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+
+                eventBus.publish(new TickEvent());
+                assertThat(received.sum()).isEqualTo(THREADS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentSubscribeAndCloseLeaksNoSubscribers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 50; round++) {
+                DefaultEventBus eventBus = new DefaultEventBus();
+                CyclicBarrier barrier = new CyclicBarrier(THREADS + 1);
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        try {
+                            for (int j = 0; j < 100; j++) {
+                                eventBus.subscribe(TickEvent.class, e -> { });
+                            }
+                        } catch (IllegalStateException e) {
+                            // closed
+                        }
+                        return null;
+                    }));
+                }
+                barrier.await();
+                eventBus.close();
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+
+                assertThat(eventBus.getSubscribers(TickEvent.class)).isEmpty();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentPublishAndSubscribe() throws Exception {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        LongAdder stableReceived = new LongAdder();
+        eventBus.subscribe(TickEvent.class, e -> stableReceived.increment());
+
+        int publishers = THREADS / 2;
+        int eventsPerPublisher = 50_000;
+        AtomicBoolean publishing = new AtomicBoolean(true);
+        CountDownLatch published = new CountDownLatch(publishers);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < publishers; i++) {
+                executor.execute(() -> {
+                    TickEvent event = new TickEvent();
+                    for (int j = 0; j < eventsPerPublisher; j++) {
+                        eventBus.publish(event);
+                    }
+                    published.countDown();
+                });
+            }
+
+            List<Future<?>> churn = new ArrayList<>();
+            for (int i = 0; i < THREADS - publishers; i++) {
+                churn.add(executor.submit(() -> {
+                    while (publishing.get()) {
+                        Consumer<TickEvent> subscriber = e -> { };
+                        Subscription subscription = eventBus.subscribe(TickEvent.class, subscriber);
+                        subscription.cancel();
+                    }
+                    return null;
+                }));
+            }
+
+            assertThat(published.await(30, TimeUnit.SECONDS)).isTrue();
+            publishing.set(false);
+            for (Future<?> future : churn) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stableReceived.sum()).isEqualTo((long) publishers * eventsPerPublisher);
+        assertThat(eventBus.getSubscribers(TickEvent.class)).hasSize(1);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static class TickEvent extends AbstractEvent {
+
+        public TickEvent() {
+            super(EVENT_SOURCE);
+        }
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -107,6 +109,393 @@ public class DefaultEventBusTest {
         assertThat(doubleEvents).containsOnly(de0, de1);
     }
 
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSubscribersChangedAfterPublishingAreRespected() {
+        List<IntegerEvent> intEvents = new ArrayList<>();
+        eventBus.subscribe(IntegerEvent.class, intEvents::add);
+
+        IntegerEvent ie0 = new IntegerEvent(EVENT_SOURCE, 1);
+        IntegerEvent ie1 = new IntegerEvent(EVENT_SOURCE, 2);
+        IntegerEvent ie2 = new IntegerEvent(EVENT_SOURCE, 3);
+        eventBus.publish(ie0);
+
+        List<NumberEvent> numberEvents = new ArrayList<>();
+        Consumer<NumberEvent> numberSubscriber = numberEvents::add;
+        eventBus.subscribe(NumberEvent.class, numberSubscriber);
+        eventBus.publish(ie1);
+        eventBus.unsubscribe(numberSubscriber);
+        eventBus.publish(ie2);
+
+        assertThat(intEvents).containsExactly(ie0, ie1, ie2);
+        assertThat(numberEvents).containsExactly(ie1);
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSubscriptionCancelRemovesOnlyThatRegistration() {
+        List<NumberEvent> numberEvents = new ArrayList<>();
+        Consumer<NumberEvent> subscriber = numberEvents::add;
+        Subscription intSubscription = eventBus.subscribe(IntegerEvent.class, subscriber);
+        eventBus.subscribe(DoubleEvent.class, subscriber);
+
+        IntegerEvent ie0 = new IntegerEvent(EVENT_SOURCE, 42);
+        DoubleEvent de0 = new DoubleEvent(EVENT_SOURCE, 0.815);
+        intSubscription.cancel();
+        intSubscription.cancel();
+        eventBus.publish(ie0);
+        eventBus.publish(de0);
+
+        assertThat(numberEvents).containsExactly(de0);
+    }
+
+    @Test
+    public void testSubscribingTwiceReturnsExistingSubscription() {
+        List<StringEvent> stringEvents = new ArrayList<>();
+        Consumer<StringEvent> subscriber = stringEvents::add;
+        Subscription subscription = eventBus.subscribe(StringEvent.class, subscriber);
+
+        assertThat(eventBus.subscribe(StringEvent.class, subscriber)).isSameAs(subscription);
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "foo");
+        eventBus.publish(se0);
+        assertThat(stringEvents).containsExactly(se0);
+    }
+
+    @Test
+    public void testWeakSubscriberDoesNotPreventOwnerCollection() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<StringEvent> stringEvents = new ArrayList<>();
+        Object owner = new Object();
+        WeakReference<Object> ownerRef = new WeakReference<>(owner);
+        eventBus.subscribeWeakly(owner, StringEvent.class, (o, e) -> stringEvents.add(e));
+
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "foo");
+        eventBus.publish(se0);
+
+        //noinspection UnusedAssignment
+        owner = null;
+        for (int i = 0; i < 50 && ownerRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(ownerRef.get()).isNull();
+
+        eventBus.publish(new StringEvent(EVENT_SOURCE, "bar"));
+        assertThat(stringEvents).containsExactly(se0);
+        assertThat(eventBus.getSubscribers(StringEvent.class)).isEmpty();
+    }
+
+    @Test
+    public void testSourceFilteredSubscribers() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+        List<StringEvent> allEvents = new ArrayList<>();
+        List<StringEvent> fooEvents = new ArrayList<>();
+        List<StringEvent> barEvents = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, allEvents::add);
+        eventBus.subscribe(StringEvent.class, foo, fooEvents::add);
+        Subscription barSubscription = eventBus.subscribe(StringEvent.class, bar, barEvents::add);
+
+        StringEvent se0 = new StringEvent(foo, "foo");
+        StringEvent se1 = new StringEvent(bar, "bar");
+        StringEvent se2 = new StringEvent(null, "baz");
+        List.of(se0, se1, se2).forEach(eventBus::publish);
+        barSubscription.cancel();
+        StringEvent se3 = new StringEvent(bar, "bar");
+        eventBus.publish(se3);
+
+        assertThat(allEvents).containsExactly(se0, se1, se2, se3);
+        assertThat(fooEvents).containsExactly(se0);
+        assertThat(barEvents).containsExactly(se1);
+    }
+
+    @Test
+    public void testSameSubscriberCanFilterMultipleSources() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+        List<StringEvent> stringEvents = new ArrayList<>();
+        Consumer<StringEvent> subscriber = stringEvents::add;
+        eventBus.subscribe(StringEvent.class, foo, subscriber);
+        eventBus.subscribe(StringEvent.class, bar, subscriber);
+
+        StringEvent se0 = new StringEvent(foo, "foo");
+        StringEvent se1 = new StringEvent(bar, "bar");
+        eventBus.publish(se0);
+        eventBus.publish(se1);
+        eventBus.unsubscribe(subscriber);
+        eventBus.publish(new StringEvent(foo, "foo"));
+
+        assertThat(stringEvents).containsExactly(se0, se1);
+    }
+
+    @Test
+    public void testStickyEventIsDeliveredToLateSubscriber() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        eventBus.makeSticky(NumberEvent.class, false);
+
+        IntegerEvent ie0 = new IntegerEvent(EVENT_SOURCE, 0);
+        IntegerEvent ie1 = new IntegerEvent(EVENT_SOURCE, 1);
+        DoubleEvent de0 = new DoubleEvent(EVENT_SOURCE, 0.0);
+        eventBus.publish(ie0);
+        eventBus.publish(ie1);
+        eventBus.publish(de0);
+        eventBus.publish(new StringEvent(EVENT_SOURCE, "foo"));
+
+        List<Event> intEvents = new ArrayList<>();
+        List<Event> numberEvents = new ArrayList<>();
+        List<Event> stringEvents = new ArrayList<>();
+        eventBus.subscribe(IntegerEvent.class, intEvents::add);
+        eventBus.subscribe(NumberEvent.class, numberEvents::add);
+        eventBus.subscribe(StringEvent.class, stringEvents::add);
+
+        assertThat(intEvents).containsExactly(ie1);
+        assertThat(numberEvents).containsExactlyInAnyOrder(ie1, de0);
+        assertThat(stringEvents).isEmpty();
+
+        eventBus.removeSticky(NumberEvent.class);
+        List<Event> lateEvents = new ArrayList<>();
+        eventBus.subscribe(IntegerEvent.class, lateEvents::add);
+        assertThat(lateEvents).isEmpty();
+    }
+
+    @Test
+    public void testRemovedStickyTypeIsNotStoredByConcurrentPublish() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            DefaultEventBus eventBus = new DefaultEventBus();
+            eventBus.makeSticky(StringEvent.class, false);
+            CountDownLatch started = new CountDownLatch(1);
+            Thread publisher = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    eventBus.publish(new StringEvent(EVENT_SOURCE, "foo"));
+                    started.countDown();
+                }
+            });
+            publisher.start();
+            started.await();
+            eventBus.removeSticky(StringEvent.class);
+            publisher.join();
+
+            // events published after the removal must not resurface
+            eventBus.makeSticky(StringEvent.class, false);
+            List<Event> lateEvents = new ArrayList<>();
+            eventBus.subscribe(StringEvent.class, lateEvents::add);
+            assertThat(lateEvents).isEmpty();
+        }
+    }
+
+    @Test
+    public void testStickyEventIsKeptPerSource() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        eventBus.makeSticky(StringEvent.class, true);
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+
+        StringEvent se0 = new StringEvent(foo, "foo0");
+        StringEvent se1 = new StringEvent(foo, "foo1");
+        StringEvent se2 = new StringEvent(bar, "bar");
+        eventBus.publish(se0);
+        eventBus.publish(se1);
+        eventBus.publish(se2);
+
+        List<StringEvent> allEvents = new ArrayList<>();
+        List<StringEvent> barEvents = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, allEvents::add);
+        eventBus.subscribe(StringEvent.class, bar, barEvents::add);
+
+        assertThat(allEvents).containsExactlyInAnyOrder(se1, se2);
+        assertThat(barEvents).containsExactly(se2);
+    }
+
+    @Test
+    public void testPublishAllDeliversBatchesToBatchConsumers() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<List<StringEvent>> batches = new ArrayList<>();
+        List<Event> allEvents = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, (BatchConsumer<StringEvent>) e -> batches.add(List.copyOf(e)));
+        eventBus.subscribe(Event.class, allEvents::add);
+
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "foo");
+        StringEvent se1 = new StringEvent(EVENT_SOURCE, "bar");
+        IntegerEvent ie0 = new IntegerEvent(EVENT_SOURCE, 0);
+        StringEvent se2 = new StringEvent(EVENT_SOURCE, "baz");
+        eventBus.publishAll(se0, se1, ie0, se2);
+
+        assertThat(batches).containsExactly(List.of(se0, se1), List.of(se2));
+        assertThat(allEvents).containsExactly(se0, se1, ie0, se2);
+    }
+
+    @Test
+    public void testPublishAllRespectsSourceFilter() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+        List<StringEvent> fooEvents = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, foo, fooEvents::add);
+
+        StringEvent se0 = new StringEvent(foo, "foo0");
+        StringEvent se1 = new StringEvent(bar, "bar");
+        StringEvent se2 = new StringEvent(foo, "foo1");
+        eventBus.publishAll(List.of(se0, se1, se2));
+
+        assertThat(fooEvents).containsExactly(se0, se2);
+    }
+
+    @Test
+    public void testChildEventBusScopesEvents() {
+        DefaultEventBus parent = new DefaultEventBus();
+        DefaultEventBus child1 = parent.createChild();
+        DefaultEventBus child2 = parent.createChild();
+        List<Event> parentEvents = new ArrayList<>();
+        List<Event> child1Events = new ArrayList<>();
+        List<Event> child2Events = new ArrayList<>();
+        parent.subscribe(StringEvent.class, parentEvents::add);
+        child1.subscribe(StringEvent.class, child1Events::add);
+        child2.subscribe(StringEvent.class, child2Events::add);
+
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "parent");
+        StringEvent se1 = new StringEvent(EVENT_SOURCE, "child1");
+        StringEvent se2 = new StringEvent(EVENT_SOURCE, "child2");
+        parent.publish(se0);
+        child1.publish(se1);
+        child2.publishAll(se2);
+
+        assertThat(parentEvents).containsExactly(se0);
+        assertThat(child1Events).containsExactly(se0, se1);
+        assertThat(child2Events).containsExactly(se0, se2);
+    }
+
+    @Test
+    public void testChildEventBusInheritsStickyEvents() {
+        DefaultEventBus parent = new DefaultEventBus();
+        parent.makeSticky(StringEvent.class, false);
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "parent0");
+        parent.publish(se0);
+
+        DefaultEventBus child = parent.createChild();
+        List<Event> childEvents = new ArrayList<>();
+        child.subscribe(StringEvent.class, childEvents::add);
+        assertThat(childEvents).containsExactly(se0);
+
+        // the child keeps its own latest event, which isn't visible to the parent
+        StringEvent se1 = new StringEvent(EVENT_SOURCE, "child");
+        child.publish(se1);
+        List<Event> lateChildEvents = new ArrayList<>();
+        List<Event> lateParentEvents = new ArrayList<>();
+        child.subscribe(StringEvent.class, lateChildEvents::add);
+        parent.subscribe(StringEvent.class, lateParentEvents::add);
+        assertThat(lateChildEvents).containsExactly(se1);
+        assertThat(lateParentEvents).containsExactly(se0);
+
+        StringEvent se2 = new StringEvent(EVENT_SOURCE, "parent1");
+        parent.publish(se2);
+        List<Event> latestChildEvents = new ArrayList<>();
+        child.subscribe(StringEvent.class, latestChildEvents::add);
+        assertThat(latestChildEvents).containsExactly(se2);
+
+        parent.removeSticky(StringEvent.class);
+        List<Event> unstickyEvents = new ArrayList<>();
+        child.subscribe(StringEvent.class, unstickyEvents::add);
+        assertThat(unstickyEvents).isEmpty();
+    }
+
+    @Test
+    public void testClosingChildEventBusDropsSubscriptions() {
+        DefaultEventBus parent = new DefaultEventBus();
+        DefaultEventBus child = parent.createChild();
+        DefaultEventBus grandChild = child.createChild();
+        List<Event> childEvents = new ArrayList<>();
+        List<Event> grandChildEvents = new ArrayList<>();
+        child.subscribe(StringEvent.class, childEvents::add);
+        grandChild.subscribe(StringEvent.class, grandChildEvents::add);
+
+        child.close();
+        parent.publish(new StringEvent(EVENT_SOURCE, "foo"));
+        child.publish(new StringEvent(EVENT_SOURCE, "bar"));
+
+        assertThat(childEvents).isEmpty();
+        assertThat(grandChildEvents).isEmpty();
+        assertThat(child.getSubscribers(StringEvent.class)).isEmpty();
+        assertThatThrownBy(() -> grandChild.subscribe(StringEvent.class, e -> { }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testSubscribersAreCalledInPriorityOrder() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventSource foo = new EventSource("foo");
+        List<String> calls = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, e -> calls.add("default"));
+        eventBus.subscribe(StringEvent.class, -10, e -> calls.add("low"));
+        eventBus.subscribe(StringEvent.class, foo, 5, e -> calls.add("filtered"));
+        eventBus.subscribe(StringEvent.class, 10, e -> calls.add("high"));
+
+        eventBus.publish(new StringEvent(foo, "foo"));
+
+        assertThat(calls).containsExactly("high", "filtered", "default", "low");
+    }
+
+    @Test
+    public void testPublishAllCallsSubscribersInPriorityOrder() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventSource foo = new EventSource("foo");
+        EventSource bar = new EventSource("bar");
+        List<String> calls = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, e -> calls.add("default:" + e.getValue()));
+        eventBus.subscribe(StringEvent.class, foo, 5, e -> calls.add("foo:" + e.getValue()));
+        eventBus.subscribe(StringEvent.class, bar, -5, e -> calls.add("bar:" + e.getValue()));
+
+        eventBus.publishAll(new StringEvent(foo, "0"), new StringEvent(bar, "1"), new StringEvent(foo, "2"));
+
+        assertThat(calls).containsExactly("foo:0", "foo:2", "default:0", "default:1", "default:2", "bar:1");
+    }
+
+    @Test
+    public void testConsumedEventIsNotPropagated() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        DefaultEventBus child = eventBus.createChild();
+        List<String> calls = new ArrayList<>();
+        eventBus.subscribe(ShortcutEvent.class, e -> calls.add("handler"));
+        eventBus.subscribe(ShortcutEvent.class, 100, e -> {
+            calls.add("dialog");
+            if (e.modal) { e.consume(); }
+        });
+        child.subscribe(ShortcutEvent.class, e -> calls.add("child"));
+
+        ShortcutEvent consumed = new ShortcutEvent(true);
+        eventBus.publish(consumed);
+        assertThat(consumed.isConsumed()).isTrue();
+        assertThat(calls).containsExactly("dialog");
+
+        calls.clear();
+        eventBus.publishAll(new ShortcutEvent(false), new ShortcutEvent(true));
+        assertThat(calls).containsExactly("dialog", "handler", "child", "dialog");
+    }
+
+    @Test
+    public void testOverflowIsThrownAfterAllSubscribersReceivedEvent() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        DefaultEventBus child = eventBus.createChild();
+        List<String> calls = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, 10, e -> {
+            calls.add("full");
+            throw new EventOverflowException("full");
+        });
+        eventBus.subscribe(StringEvent.class, e -> calls.add("parent"));
+        child.subscribe(StringEvent.class, e -> calls.add("child"));
+
+        assertThatThrownBy(() -> eventBus.publish(new StringEvent(EVENT_SOURCE, "foo")))
+                .isInstanceOf(EventOverflowException.class);
+        assertThat(calls).containsExactly("full", "parent", "child");
+
+        calls.clear();
+        StringEvent se0 = new StringEvent(EVENT_SOURCE, "foo");
+        StringEvent se1 = new StringEvent(EVENT_SOURCE, "bar");
+        assertThatThrownBy(() -> eventBus.publishAll(se0, se1)).isInstanceOf(EventOverflowException.class);
+        assertThat(calls).containsExactly("full", "full", "parent", "parent", "child", "child");
+    }
+
     ///////////////////////////////////////////////////////////////////////////
 
     private static class StringEvent extends TestEvent<String> {
@@ -136,4 +525,14 @@ public class DefaultEventBusTest {
             super(source, value);
         }
     }
+
+    private static class ShortcutEvent extends AbstractConsumableEvent {
+
+        private final boolean modal;
+
+        public ShortcutEvent(boolean modal) {
+            super(EVENT_SOURCE);
+            this.modal = modal;
+        }
+    }
 }
@@ -0,0 +1,224 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventBridgeTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventBridgeTest.class.getCanonicalName());
+
+    private static final String FAILING_VALUE = "fail";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEventsAreForwardedInOrder() throws Exception {
+        Path socketPath = directory.resolve("bridge.sock");
+        DefaultEventBus serverBus = new DefaultEventBus();
+        DefaultEventBus clientBus = new DefaultEventBus();
+        int eventCount = 10_000;
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(eventCount);
+        serverBus.subscribe(IntegerEvent.class, e -> {
+            received.add(e.getValue());
+            delivered.countDown();
+        });
+
+        try (EventBridge server = createBridge(EventBridge.listen(serverBus, socketPath));
+             EventBridge client = createBridge(EventBridge.connect(clientBus, socketPath))) {
+            awaitPeer(server);
+            awaitPeer(client);
+            for (int i = 0; i < eventCount; i++) {
+                clientBus.publish(new IntegerEvent(i));
+            }
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(received).hasSize(eventCount).isSorted();
+    }
+
+    @Test
+    public void testEventsAreForwardedBothWaysWithoutEcho() throws Exception {
+        Path socketPath = directory.resolve("bridge.sock");
+        DefaultEventBus serverBus = new DefaultEventBus();
+        DefaultEventBus clientBus = new DefaultEventBus();
+        List<String> serverEvents = new CopyOnWriteArrayList<>();
+        List<String> clientEvents = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        serverBus.subscribe(StringEvent.class, e -> {
+            serverEvents.add(e.getValue());
+            delivered.countDown();
+        });
+        clientBus.subscribe(StringEvent.class, e -> {
+            clientEvents.add(e.getValue());
+            delivered.countDown();
+        });
+
+        try (EventBridge server = createBridge(EventBridge.listen(serverBus, socketPath));
+             EventBridge client = createBridge(EventBridge.connect(clientBus, socketPath))) {
+            awaitPeer(server);
+            awaitPeer(client);
+            serverBus.publish(new StringEvent("from server"));
+            clientBus.publish(new StringEvent("from client"));
+
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+            // give a potential echo time to arrive
+            Thread.sleep(100);
+        }
+
+        assertThat(serverEvents).containsExactlyInAnyOrder("from server", "from client");
+        assertThat(clientEvents).containsExactlyInAnyOrder("from server", "from client");
+    }
+
+    @Test
+    public void testLargeEventsGrowBuffers() throws Exception {
+        Path socketPath = directory.resolve("bridge.sock");
+        DefaultEventBus serverBus = new DefaultEventBus();
+        DefaultEventBus clientBus = new DefaultEventBus();
+        String value = "x".repeat(EventBridge.INITIAL_BUFFER_SIZE * 3);
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        serverBus.subscribe(StringEvent.class, e -> {
+            received.add(e.getValue());
+            delivered.countDown();
+        });
+
+        try (EventBridge server = createBridge(EventBridge.listen(serverBus, socketPath));
+             EventBridge client = createBridge(EventBridge.connect(clientBus, socketPath))) {
+            awaitPeer(server);
+            awaitPeer(client);
+            clientBus.publish(new StringEvent(value));
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(received).containsExactly(value);
+    }
+
+    @Test
+    public void testOversizedEventIsDroppedForPeerOnly() throws Exception {
+        Path socketPath = directory.resolve("bridge.sock");
+        DefaultEventBus serverBus = new DefaultEventBus();
+        DefaultEventBus clientBus = new DefaultEventBus();
+        List<String> local = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        clientBus.subscribe(StringEvent.class, e -> local.add(e.getValue()));
+        serverBus.subscribe(StringEvent.class, e -> delivered.countDown());
+
+        try (EventBridge server = createBridge(EventBridge.listen(serverBus, socketPath));
+             EventBridge client = createBridge(EventBridge.connect(clientBus, socketPath))) {
+            awaitPeer(server);
+            clientBus.publish(new StringEvent("x".repeat(EventBridge.MAX_BUFFER_SIZE)));
+            clientBus.publish(new StringEvent("small"));
+
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(client.getDroppedEventCount()).isEqualTo(1);
+        }
+
+        assertThat(local).hasSize(2);
+    }
+
+    @Test
+    public void testCodecFailureDoesNotCorruptStream() throws Exception {
+        Path socketPath = directory.resolve("bridge.sock");
+        DefaultEventBus serverBus = new DefaultEventBus();
+        DefaultEventBus clientBus = new DefaultEventBus();
+        List<String> received = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        serverBus.subscribe(StringEvent.class, e -> {
+            received.add(e.getValue());
+            delivered.countDown();
+        });
+
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try (EventBridge server = createBridge(EventBridge.listen(serverBus, socketPath));
+             EventBridge client = createBridge(EventBridge.connect(clientBus, socketPath))) {
+            awaitPeer(server);
+            clientBus.publishAll(new StringEvent("before"), new StringEvent(FAILING_VALUE), new StringEvent("after"));
+
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(server.getPeerCount()).isEqualTo(1);
+            assertThat(client.getPeerCount()).isEqualTo(1);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+
+        assertThat(received).containsExactly("before", "after");
+        assertThat(errors).hasSize(1);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static EventBridge createBridge(EventBridge bridge) {
+        bridge.registerCodec(IntegerEvent.class, 1, new IntegerCodec());
+        bridge.registerCodec(StringEvent.class, 2, new StringCodec());
+        bridge.forward(IntegerEvent.class);
+        bridge.forward(StringEvent.class);
+        return bridge;
+    }
+
+    private static void awaitPeer(EventBridge bridge) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bridge.getPeerCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bridge.getPeerCount()).isEqualTo(1);
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+
+    private static class StringEvent extends TestEvent<String> {
+
+        public StringEvent(String value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+
+    private static class IntegerCodec implements EventCodec<IntegerEvent> {
+
+        @Override
+        public void encode(IntegerEvent event, ByteBuffer buffer) {
+            buffer.putInt(event.getValue());
+        }
+
+        @Override
+        public IntegerEvent decode(ByteBuffer buffer) {
+            return new IntegerEvent(buffer.getInt());
+        }
+    }
+
+    private static class StringCodec implements EventCodec<StringEvent> {
+
+        @Override
+        public void encode(StringEvent event, ByteBuffer buffer) {
+            buffer.put(event.getValue().getBytes(StandardCharsets.UTF_8));
+            if (event.getValue().startsWith(FAILING_VALUE)) {
+                throw new IllegalArgumentException(event.getValue());
+            }
+        }
+
+        @Override
+        public StringEvent decode(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new StringEvent(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
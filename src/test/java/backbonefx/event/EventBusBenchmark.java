@@ -0,0 +1,109 @@
+package backbonefx.event;
+
+import backbonefx.event.RingBufferEventBus.ProducerType;
+import backbonefx.event.RingBufferEventBus.WaitStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rough throughput comparison of event bus implementations. It's not a replacement for
+ * a proper JMH benchmark, but good enough to catch regressions. Disabled by default,
+ * run with {@code mvn test -Dtest=EventBusBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EventBusBenchmark {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventBusBenchmark.class.getCanonicalName());
+    private static final int WARMUP_EVENTS = 1_000_000;
+    private static final int MEASURED_EVENTS = 5_000_000;
+
+    @Test
+    public void compareThroughput() throws InterruptedException {
+        measure("DefaultEventBus", new DefaultEventBus());
+        try (RingBufferEventBus eventBus = new RingBufferEventBus(8192, ProducerType.SINGLE, WaitStrategy.YIELD)) {
+            measure("RingBufferEventBus (single producer)", eventBus);
+        }
+        try (RingBufferEventBus eventBus = new RingBufferEventBus(8192, ProducerType.MULTI, WaitStrategy.YIELD)) {
+            measure("RingBufferEventBus (multi producer)", eventBus);
+        }
+    }
+
+    @Test
+    public void measureScaling() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        LongAdder received = new LongAdder();
+        eventBus.subscribe(TickEvent.class, e -> received.increment());
+        eventBus.subscribe(Event.class, e -> { });
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        runConcurrently(eventBus, maxThreads, WARMUP_EVENTS);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long nanos = runConcurrently(eventBus, threads, MEASURED_EVENTS);
+            System.out.printf("%-40s %,15d events/s%n",
+                    "DefaultEventBus (" + threads + " publishers)",
+                    (long) threads * MEASURED_EVENTS * TimeUnit.SECONDS.toNanos(1) / nanos
+            );
+        }
+    }
+
+    private static long runConcurrently(EventBus eventBus, int threads, int countPerThread)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] publishers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            publishers[i] = new Thread(() -> {
+                TickEvent event = new TickEvent();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < countPerThread; j++) {
+                    eventBus.publish(event);
+                }
+            });
+            publishers[i].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static void measure(String name, EventBus eventBus) throws InterruptedException {
+        LongAdder received = new LongAdder();
+        eventBus.subscribe(TickEvent.class, e -> received.increment());
+
+        run(eventBus, received, WARMUP_EVENTS);
+        received.reset();
+        long nanos = run(eventBus, received, MEASURED_EVENTS);
+
+        System.out.printf("%-40s %,15d events/s%n", name, MEASURED_EVENTS * TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+
+    private static long run(EventBus eventBus, LongAdder received, int count) throws InterruptedException {
+        TickEvent event = new TickEvent();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            eventBus.publish(event);
+        }
+        while (received.sum() < count) {
+            Thread.onSpinWait();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static class TickEvent extends AbstractEvent {
+
+        public TickEvent() {
+            super(EVENT_SOURCE);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventBusMetricsTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventBusMetricsTest.class.getCanonicalName());
+
+    @Test
+    public void testPublishCountsAreCollectedPerEventClass() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventBusMetrics metrics = eventBus.enableMetrics(null, null);
+        eventBus.subscribe(Event.class, e -> { });
+
+        eventBus.publish(new StringEvent("foo"));
+        eventBus.publish(new StringEvent("bar"));
+        eventBus.publishAll(new IntegerEvent(1), new IntegerEvent(2), new IntegerEvent(3));
+
+        EventBusMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getPublishCount(StringEvent.class)).isEqualTo(2);
+        assertThat(snapshot.getPublishCount(IntegerEvent.class)).isEqualTo(3);
+        assertThat(snapshot.subscribers()).hasSize(1);
+        assertThat(snapshot.subscribers().get(0).latency().count()).isEqualTo(5);
+    }
+
+    @Test
+    public void testSlowSubscriberIsReported() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<EventBusMetrics.SlowInvocation> reports = new ArrayList<>();
+        EventBusMetrics metrics = eventBus.enableMetrics(Duration.ofMillis(20), reports::add);
+        eventBus.subscribe(StringEvent.class, e -> sleep(30));
+        eventBus.subscribe(StringEvent.class, e -> { });
+
+        eventBus.publish(new StringEvent("foo"));
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0).origin()).isEqualTo(EventBusMetricsTest.class.getName());
+        assertThat(reports.get(0).eventClass()).isEqualTo(StringEvent.class);
+        assertThat(reports.get(0).elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+
+        List<EventBusMetrics.SubscriberStats> stats = metrics.snapshot().subscribers();
+        assertThat(stats).hasSize(2);
+        assertThat(stats).anySatisfy(s -> assertThat(s.latency().max()).isGreaterThanOrEqualTo(Duration.ofMillis(20)));
+    }
+
+    @Test
+    public void testThrowingSlowSubscriberHandlerDoesNotAbortDelivery() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        eventBus.enableMetrics(Duration.ZERO, report -> { throw new IllegalStateException("report"); });
+        List<String> calls = new ArrayList<>();
+        eventBus.subscribe(StringEvent.class, e -> calls.add("first"));
+        eventBus.subscribe(StringEvent.class, e -> calls.add("second"));
+
+        List<Throwable> errors = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try {
+            eventBus.publish(new StringEvent("foo"));
+            eventBus.publishAll(new StringEvent("bar"));
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+        assertThat(calls).containsExactly("first", "second", "first", "second");
+        assertThat(errors).hasSize(4).allMatch(e -> e instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testCancelledSubscriberIsNotRetained() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventBusMetrics metrics = eventBus.enableMetrics(null, null);
+        Subscription subscription = eventBus.subscribe(StringEvent.class, e -> { });
+        Registration<?> registration = eventBus.getSubscribers(StringEvent.class)[0];
+        assertThat(metrics.snapshot().subscribers()).hasSize(1);
+
+        // an invocation that completes after the registration was concurrently removed
+        subscription.cancel();
+        metrics.recordInvocation(registration, StringEvent.class, 1000);
+        metrics.add(registration);
+
+        assertThat(metrics.snapshot().subscribers()).isEmpty();
+    }
+
+    @Test
+    public void testChildEventBusSharesMetrics() {
+        DefaultEventBus parent = new DefaultEventBus();
+        DefaultEventBus child = parent.createChild();
+        EventBusMetrics metrics = parent.enableMetrics(null, null);
+        DefaultEventBus grandChild = child.createChild();
+        child.subscribe(StringEvent.class, e -> { });
+        grandChild.subscribe(StringEvent.class, e -> { });
+
+        // events propagated to the children are counted once
+        parent.publish(new StringEvent("foo"));
+        child.publishAll(new StringEvent("bar"), new StringEvent("baz"));
+        grandChild.publish(new StringEvent("qux"));
+
+        EventBusMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getPublishCount(StringEvent.class)).isEqualTo(4);
+        assertThat(snapshot.subscribers()).hasSize(2);
+
+        parent.disableMetrics();
+        grandChild.publish(new StringEvent("quux"));
+        assertThat(metrics.snapshot().getPublishCount(StringEvent.class)).isEqualTo(4);
+    }
+
+    @Test
+    public void testNoMetricsAreCollectedWhenDisabled() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        EventBusMetrics metrics = eventBus.enableMetrics(null, null);
+        eventBus.disableMetrics();
+        eventBus.subscribe(StringEvent.class, e -> { });
+
+        eventBus.publish(new StringEvent("foo"));
+
+        assertThat(metrics.snapshot().publishCounts()).isEmpty();
+        assertThat(metrics.snapshot().subscribers()).isEmpty();
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.max()).isEqualTo(Duration.ofNanos(1_000_000));
+        assertThat(snapshot.mean()).isEqualTo(Duration.ofNanos(500_500));
+        // bucket bounds have at most 25% relative error
+        assertThat(snapshot.percentile(50).toNanos()).isBetween(500_000L, 625_000L);
+        assertThat(snapshot.percentile(100)).isEqualTo(Duration.ofNanos(1_000_000));
+
+        for (long value : new long[] { 0, 1, 3, 4, 7, 8, 1000, 123_456_789, Long.MAX_VALUE }) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(LatencyHistogram.upperBoundOf(bucket)).isGreaterThanOrEqualTo(value);
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.upperBoundOf(bucket - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class StringEvent extends TestEvent<String> {
+
+        public StringEvent(String value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
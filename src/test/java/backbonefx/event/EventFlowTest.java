@@ -0,0 +1,108 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventFlowTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventFlowTest.class.getCanonicalName());
+    private final EventBus eventBus = new DefaultEventBus();
+
+    @Test
+    public void testPublisherRespectsDemand() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        EventFlow.publisher(eventBus, IntegerEvent.class, 16, OverflowPolicy.DROP_OLDEST).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        for (int i = 0; i < 5; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+        assertThat(subscriber.values).containsExactly(0, 1);
+
+        subscriber.subscription.request(10);
+        assertThat(subscriber.values).containsExactly(0, 1, 2, 3, 4);
+
+        subscriber.subscription.cancel();
+        eventBus.publish(new IntegerEvent(5));
+        assertThat(subscriber.values).hasSize(5);
+    }
+
+    @Test
+    public void testPublisherBufferOverflow() {
+        RecordingSubscriber dropOldest = new RecordingSubscriber();
+        RecordingSubscriber fail = new RecordingSubscriber();
+        EventFlow.publisher(eventBus, IntegerEvent.class, 2, OverflowPolicy.DROP_OLDEST).subscribe(dropOldest);
+        EventFlow.publisher(eventBus, IntegerEvent.class, 2, OverflowPolicy.FAIL).subscribe(fail);
+
+        for (int i = 0; i < 5; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+        dropOldest.subscription.request(10);
+
+        assertThat(dropOldest.values).containsExactly(3, 4);
+        assertThat(fail.error).isInstanceOf(EventOverflowException.class);
+    }
+
+    @Test
+    public void testSubscriberPublishesToEventBus() throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(10);
+        List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+        eventBus.subscribe(IntegerEvent.class, e -> {
+            values.add(e.getValue());
+            received.countDown();
+        });
+
+        try (SubmissionPublisher<IntegerEvent> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(EventFlow.subscriber(eventBus, 4));
+            for (int i = 0; i < 10; i++) {
+                publisher.submit(new IntegerEvent(i));
+            }
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(values).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static class RecordingSubscriber implements Flow.Subscriber<IntegerEvent> {
+
+        final List<Integer> values = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(IntegerEvent item) {
+            values.add(item.getValue());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() { }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
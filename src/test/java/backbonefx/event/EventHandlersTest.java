@@ -0,0 +1,143 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventHandlersTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventHandlersTest.class.getCanonicalName());
+
+    @Test
+    public void testAnnotatedMethodsAreSubscribed() {
+        EventBus eventBus = new DefaultEventBus();
+        Listener listener = new Listener();
+        EventHandlers.subscribe(eventBus, listener);
+
+        StringEvent se = new StringEvent("foo");
+        IntegerEvent ie = new IntegerEvent(1);
+        eventBus.publish(se);
+        eventBus.publish(ie);
+
+        assertThat(listener.stringEvents).containsExactly(se);
+        assertThat(listener.allEvents).containsExactly(se, ie);
+        assertThat(listener.notAnnotated).isEmpty();
+    }
+
+    @Test
+    public void testInheritedAndOverriddenMethods() {
+        EventBus eventBus = new DefaultEventBus();
+        ChildListener listener = new ChildListener();
+        EventHandlers.subscribe(eventBus, listener);
+
+        IntegerEvent ie = new IntegerEvent(1);
+        eventBus.publish(ie);
+
+        // overridden method is called once, via the child declaration
+        assertThat(listener.allEvents).containsExactly(ie);
+        assertThat(listener.childEvents).containsExactly(ie);
+    }
+
+    @Test
+    public void testSubscriptionCancelsAllHandlers() {
+        EventBus eventBus = new DefaultEventBus();
+        Listener listener = new Listener();
+        Subscription subscription = EventHandlers.subscribe(eventBus, listener);
+        subscription.cancel();
+
+        eventBus.publish(new StringEvent("foo"));
+
+        assertThat(listener.stringEvents).isEmpty();
+        assertThat(listener.allEvents).isEmpty();
+    }
+
+    @Test
+    public void testWeaklySubscribedTargetIsCollected() throws InterruptedException {
+        for (EventBus eventBus : List.of(new DefaultEventBus(), new AsyncEventBus(AsyncEventBus.CALLER_THREAD))) {
+            Listener listener = new Listener();
+            WeakReference<Listener> listenerRef = new WeakReference<>(listener);
+            EventHandlers.subscribeWeakly(eventBus, listener);
+
+            StringEvent se = new StringEvent("foo");
+            eventBus.publish(se);
+            assertThat(listener.stringEvents).containsExactly(se);
+
+            //noinspection UnusedAssignment
+            listener = null;
+            for (int i = 0; i < 50 && listenerRef.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertThat(listenerRef.get()).isNull();
+            eventBus.publish(new StringEvent("bar"));
+        }
+    }
+
+    @Test
+    public void testInvalidHandlerThrowsException() {
+        assertThat(EventHandlers.hasHandlers(Listener.class)).isTrue();
+        assertThat(EventHandlers.hasHandlers(String.class)).isFalse();
+        assertThatThrownBy(() -> EventHandlers.subscribe(new DefaultEventBus(), new InvalidListener()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static class Listener {
+
+        final List<Event> stringEvents = new ArrayList<>();
+        final List<Event> allEvents = new ArrayList<>();
+        final List<Event> notAnnotated = new ArrayList<>();
+
+        @Subscribe
+        private void onString(StringEvent event) {
+            stringEvents.add(event);
+        }
+
+        @Subscribe
+        public void onAny(Event event) {
+            allEvents.add(event);
+        }
+
+        public void onNotAnnotated(Event event) {
+            notAnnotated.add(event);
+        }
+    }
+
+    private static class ChildListener extends Listener {
+
+        final List<Event> childEvents = new ArrayList<>();
+
+        @Override
+        @Subscribe
+        public void onAny(Event event) {
+            super.onAny(event);
+            childEvents.add(event);
+        }
+    }
+
+    private static class InvalidListener {
+
+        @Subscribe
+        public void onEvent(String value) { }
+    }
+
+    private static class StringEvent extends TestEvent<String> {
+
+        public StringEvent(String value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventIdGeneratorTest {
+
+    @Test
+    public void testSequentialIdsAreUniqueAcrossThreads() throws InterruptedException {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(EventIdGenerator.SEQUENTIAL.nextId());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ids).hasSize(40_000);
+    }
+
+    @Test
+    public void testTimeOrderedIdsAreSortedByCreationTime() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(EventIdGenerator.TIME_ORDERED.nextId());
+        }
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids).allMatch(id -> id.version() == 7 && id.variant() == 2);
+        assertThat(ids).isSortedAccordingTo((a, b) -> {
+            int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            if (result != 0) { return result; }
+            return Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        });
+    }
+
+    @Test
+    public void testEventsUseConfiguredGenerator() {
+        UUID fixed = UUID.randomUUID();
+        try {
+            AbstractEvent.setIdGenerator(() -> fixed);
+            assertThat(new TestEvent<>(null, "foo").getId()).isEqualTo(fixed);
+        } finally {
+            AbstractEvent.setIdGenerator(EventIdGenerator.SEQUENTIAL);
+        }
+        assertThat(new TestEvent<>(null, "foo")).isNotEqualTo(new TestEvent<>(null, "foo"));
+    }
+}
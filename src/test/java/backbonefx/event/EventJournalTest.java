@@ -0,0 +1,222 @@
+package backbonefx.event;
+
+import backbonefx.event.EventJournal.ReplayMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventJournalTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventJournalTest.class.getCanonicalName());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRecordedEventsAreReplayed() throws IOException {
+        List<Integer> published = new ArrayList<>();
+        try (EventJournal journal = createJournal(128)) {
+            EventBus eventBus = new RecordingEventBus(new DefaultEventBus(), journal);
+            eventBus.subscribe(IntegerEvent.class, e -> published.add(e.getValue()));
+            for (int i = 0; i < 100; i++) {
+                eventBus.publish(new IntegerEvent(i));
+            }
+            // not recorded, no codec
+            eventBus.publish(new StringEvent("foo"));
+        }
+        assertThat(published).hasSize(100);
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        List<Integer> replayed = new ArrayList<>();
+        try (EventJournal journal = createJournal(128)) {
+            EventBus eventBus = new DefaultEventBus();
+            eventBus.subscribe(IntegerEvent.class, e -> replayed.add(e.getValue()));
+            long count = journal.replay(eventBus, Instant.EPOCH, Instant.now(), ReplayMode.FULL_SPEED);
+            assertThat(count).isEqualTo(100);
+        }
+        assertThat(replayed).isEqualTo(published);
+    }
+
+    @Test
+    public void testPublishAllRecordsEvents() throws IOException {
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            EventBus eventBus = new RecordingEventBus(new DefaultEventBus(), journal);
+            eventBus.publishAll(new IntegerEvent(1), new IntegerEvent(2));
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            EventBus eventBus = new DefaultEventBus();
+            eventBus.subscribe(IntegerEvent.class, e -> replayed.add(e.getValue()));
+            journal.replay(eventBus, Instant.EPOCH, Instant.now(), ReplayMode.FULL_SPEED);
+        }
+        assertThat(replayed).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testEmptyRecordDoesNotCorruptJournal() throws IOException {
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            journal.registerCodec(StringEvent.class, 2, new EventCodec<>() {
+                @Override
+                public void encode(StringEvent event, ByteBuffer buffer) { }
+
+                @Override
+                public StringEvent decode(ByteBuffer buffer) {
+                    return new StringEvent("");
+                }
+            });
+            journal.append(new IntegerEvent(1));
+            assertThatThrownBy(() -> journal.append(new StringEvent("foo")))
+                    .isInstanceOf(IllegalStateException.class);
+            journal.append(new IntegerEvent(2));
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            EventBus eventBus = new DefaultEventBus();
+            eventBus.subscribe(IntegerEvent.class, e -> replayed.add(e.getValue()));
+            journal.replay(eventBus, Instant.EPOCH, Instant.now(), ReplayMode.FULL_SPEED);
+        }
+        assertThat(replayed).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testFailingCodecDoesNotCorruptJournal() throws IOException {
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            journal.registerCodec(StringEvent.class, 2, new EventCodec<>() {
+                @Override
+                public void encode(StringEvent event, ByteBuffer buffer) {
+                    buffer.putLong(-1L);
+                    throw new IllegalArgumentException(event.getValue());
+                }
+
+                @Override
+                public StringEvent decode(ByteBuffer buffer) {
+                    return new StringEvent("");
+                }
+            });
+            journal.append(new IntegerEvent(1));
+            assertThatThrownBy(() -> journal.append(new StringEvent("foo")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            journal.append(new IntegerEvent(3));
+            journal.append(new IntegerEvent(4));
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            EventBus eventBus = new DefaultEventBus();
+            eventBus.subscribe(IntegerEvent.class, e -> replayed.add(e.getValue()));
+            journal.replay(eventBus, Instant.EPOCH, Instant.now(), ReplayMode.FULL_SPEED);
+        }
+        assertThat(replayed).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    public void testRecordingFailureDoesNotAffectDelivery() throws IOException {
+        List<Integer> delivered = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try {
+            EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE);
+            RecordingEventBus eventBus = new RecordingEventBus(new DefaultEventBus(), journal);
+            eventBus.subscribe(IntegerEvent.class, e -> delivered.add(e.getValue()));
+            eventBus.publish(new IntegerEvent(1));
+            journal.close();
+            eventBus.publish(new IntegerEvent(2));
+            eventBus.publishAll(new IntegerEvent(3), new IntegerEvent(4));
+
+            assertThat(delivered).containsExactly(1, 2, 3, 4);
+            assertThat(eventBus.getDroppedRecordCount()).isEqualTo(3);
+            assertThat(errors).hasSize(3).allMatch(e -> e instanceof IllegalStateException);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void testReplayTimeRange() throws IOException, InterruptedException {
+        Instant middle;
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            journal.append(new IntegerEvent(1));
+            Thread.sleep(20);
+            middle = Instant.now();
+            Thread.sleep(20);
+            journal.append(new IntegerEvent(2));
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            EventBus eventBus = new DefaultEventBus();
+            eventBus.subscribe(IntegerEvent.class, e -> replayed.add(e.getValue()));
+            journal.replay(eventBus, middle, Instant.now(), ReplayMode.FULL_SPEED);
+        }
+        assertThat(replayed).containsExactly(2);
+    }
+
+    @Test
+    public void testReplayWithOriginalTiming() throws IOException, InterruptedException {
+        try (EventJournal journal = createJournal(EventJournal.DEFAULT_SEGMENT_SIZE)) {
+            journal.append(new IntegerEvent(1));
+            Thread.sleep(100);
+            journal.append(new IntegerEvent(2));
+
+            long start = System.nanoTime();
+            long count = journal.replay(
+                    new DefaultEventBus(), Instant.EPOCH, Instant.now(), ReplayMode.ORIGINAL_TIMING
+            );
+            assertThat(count).isEqualTo(2);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(90));
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private EventJournal createJournal(int segmentSize) throws IOException {
+        EventJournal journal = new EventJournal(directory, segmentSize);
+        journal.registerCodec(IntegerEvent.class, 1, new EventCodec<>() {
+            @Override
+            public void encode(IntegerEvent event, ByteBuffer buffer) {
+                buffer.putInt(event.getValue());
+            }
+
+            @Override
+            public IntegerEvent decode(ByteBuffer buffer) {
+                return new IntegerEvent(buffer.getInt());
+            }
+        });
+        return journal;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+
+    private static class StringEvent extends TestEvent<String> {
+
+        public StringEvent(String value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
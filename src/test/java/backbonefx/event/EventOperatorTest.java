@@ -0,0 +1,115 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventOperatorTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(EventOperatorTest.class.getCanonicalName());
+
+    @Test
+    public void testInvalidDurationThrowsException() {
+        assertThatThrownBy(() -> Debounce.of(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Throttle.of(Duration.ofMillis(-1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testDebounceDeliversLatestEventAfterQuietPeriod() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        eventBus.subscribeWith(IntegerEvent.class, e -> {
+            values.add(e.getValue());
+            delivered.countDown();
+        }, Debounce.of(Duration.ofMillis(100)));
+
+        for (int i = 0; i < 10; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(values).containsExactly(9);
+    }
+
+    @Test
+    public void testThrottleDeliversFirstAndLatestEvent() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        eventBus.subscribeWith(IntegerEvent.class, e -> {
+            values.add(e.getValue());
+            delivered.countDown();
+        }, Throttle.of(Duration.ofMillis(200)));
+
+        for (int i = 0; i < 10; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+        // the first event is delivered in the publisher thread
+        assertThat(values).containsExactly(0);
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(300);
+        assertThat(values).containsExactly(0, 9);
+    }
+
+    @Test
+    public void testDelayedEventsAreDeliveredOutsideOfTimerThread() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        eventBus.subscribeWith(IntegerEvent.class, e -> {
+            threads.add(Thread.currentThread());
+            delivered.countDown();
+        }, Throttle.of(Duration.ofMillis(50)));
+
+        eventBus.publish(new IntegerEvent(1));
+        eventBus.publish(new IntegerEvent(2));
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads.get(0)).isSameAs(Thread.currentThread());
+        // the timer thread only decides when to deliver
+        assertThat(threads.get(1)).isInstanceOf(ForkJoinWorkerThread.class);
+    }
+
+    @Test
+    public void testUnsubscribeDiscardsPendingEvent() throws InterruptedException {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        Consumer subscriber = new Consumer(values);
+        eventBus.subscribeWith(IntegerEvent.class, subscriber, Debounce.of(Duration.ofMillis(50)));
+
+        eventBus.publish(new IntegerEvent(1));
+        eventBus.unsubscribe(subscriber);
+        Thread.sleep(200);
+
+        assertThat(values).isEmpty();
+        assertThat(eventBus.getSubscribers(IntegerEvent.class)).isEmpty();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private record Consumer(List<Integer> values) implements java.util.function.Consumer<IntegerEvent> {
+
+        @Override
+        public void accept(IntegerEvent event) {
+            values.add(event.getValue());
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventTypeIdsTest {
+
+    @Test
+    public void testIdsAreStableAndDistinct() {
+        int first = EventTypeIds.idOf(FooEvent.class);
+        int second = EventTypeIds.idOf(BarEvent.class);
+
+        assertThat(EventTypeIds.idOf(FooEvent.class)).isEqualTo(first);
+        assertThat(second).isNotEqualTo(first);
+        assertThat(first).isNotNegative();
+    }
+
+    @Test
+    public void testSupertypesIncludeClassesAndInterfaces() {
+        assertThat(EventTypeIds.supertypesOf(BarEvent.class)).containsExactlyInAnyOrder(
+                BarEvent.class, FooEvent.class, Marker.class, AbstractEvent.class, Event.class, Object.class
+        );
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private interface Marker extends Event { }
+
+    private static class FooEvent extends AbstractEvent { }
+
+    private static class BarEvent extends FooEvent implements Marker { }
+}
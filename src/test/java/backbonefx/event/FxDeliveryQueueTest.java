@@ -0,0 +1,103 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FxDeliveryQueueTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(FxDeliveryQueueTest.class.getCanonicalName());
+
+    private final Queue<Runnable> fxTasks = new ArrayDeque<>();
+    private boolean fxThread = false;
+
+    @Test
+    public void testEventsAreCoalescedIntoSingleTask() {
+        DefaultEventBus eventBus = new DefaultEventBus(createQueue(Duration.ofSeconds(10)));
+        List<Integer> values = new ArrayList<>();
+        eventBus.subscribeOnFxThread(IntegerEvent.class, e -> values.add(e.getValue()));
+
+        for (int i = 0; i < 5000; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+        assertThat(fxTasks).hasSize(1);
+        assertThat(values).isEmpty();
+
+        runFxTasks();
+        assertThat(values).hasSize(5000).isSorted();
+    }
+
+    @Test
+    public void testRemainingEventsAreDeliveredByNextTask() {
+        DefaultEventBus eventBus = new DefaultEventBus(createQueue(Duration.ZERO));
+        List<Integer> values = new ArrayList<>();
+        eventBus.subscribeOnFxThread(IntegerEvent.class, e -> values.add(e.getValue()));
+
+        for (int i = 0; i < 3; i++) {
+            eventBus.publish(new IntegerEvent(i));
+        }
+
+        fxThread = true;
+        fxTasks.remove().run();
+        assertThat(values).containsExactly(0);
+        assertThat(fxTasks).hasSize(1);
+
+        runFxTasks();
+        assertThat(values).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void testEventsPublishedInFxThreadAreDeliveredImmediately() {
+        DefaultEventBus eventBus = new DefaultEventBus(createQueue(Duration.ofSeconds(10)));
+        List<Integer> values = new ArrayList<>();
+        eventBus.subscribeOnFxThread(IntegerEvent.class, e -> values.add(e.getValue()));
+
+        fxThread = true;
+        eventBus.publish(new IntegerEvent(1));
+
+        assertThat(values).containsExactly(1);
+        assertThat(fxTasks).isEmpty();
+    }
+
+    @Test
+    public void testUnsubscribeFxSubscriber() {
+        DefaultEventBus eventBus = new DefaultEventBus(createQueue(Duration.ofSeconds(10)));
+        List<IntegerEvent> events = new ArrayList<>();
+        Consumer<IntegerEvent> subscriber = events::add;
+        eventBus.subscribeOnFxThread(IntegerEvent.class, subscriber);
+        eventBus.unsubscribe(subscriber);
+
+        eventBus.publish(new IntegerEvent(1));
+        runFxTasks();
+
+        assertThat(events).isEmpty();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private FxDeliveryQueue createQueue(Duration timeBudget) {
+        return new FxDeliveryQueue(fxTasks::add, () -> fxThread, timeBudget);
+    }
+
+    private void runFxTasks() {
+        fxThread = true;
+        Runnable task;
+        while ((task = fxTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
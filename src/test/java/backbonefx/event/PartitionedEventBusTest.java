@@ -0,0 +1,111 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PartitionedEventBusTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testInvalidLaneCountThrowsException() {
+        assertThatThrownBy(() -> new PartitionedEventBus(0, executor))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testEventsAreOrderedPerSource() throws InterruptedException {
+        int sourceCount = 16;
+        int eventCount = 1000;
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch delivered = new CountDownLatch(sourceCount * eventCount);
+
+        try (PartitionedEventBus eventBus = new PartitionedEventBus(4, executor)) {
+            eventBus.subscribe(IntegerEvent.class, e -> {
+                // events of the same source are never delivered concurrently
+                received.computeIfAbsent(e.getSource().id(), k -> new ArrayList<>()).add(e.getValue());
+                delivered.countDown();
+            });
+
+            for (int i = 0; i < eventCount; i++) {
+                for (int s = 0; s < sourceCount; s++) {
+                    eventBus.publish(new IntegerEvent(new EventSource("doc" + s), i));
+                }
+            }
+
+            assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(received).hasSize(sourceCount);
+        for (List<Integer> values : received.values()) {
+            assertThat(values).hasSize(eventCount).isSorted();
+        }
+    }
+
+    @Test
+    public void testSlowSourceDoesNotBlockOtherSources() throws InterruptedException {
+        EventSource slow = new EventSource("slow");
+        EventSource fast = findSourceInAnotherLane(slow);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDelivered = new CountDownLatch(1);
+
+        try (PartitionedEventBus eventBus = new PartitionedEventBus(2, executor)) {
+            eventBus.subscribe(IntegerEvent.class, slow, e -> await(release));
+            eventBus.subscribe(IntegerEvent.class, fast, e -> fastDelivered.countDown());
+
+            eventBus.publish(new IntegerEvent(slow, 1));
+            eventBus.publish(new IntegerEvent(fast, 2));
+
+            assertThat(fastDelivered.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static EventSource findSourceInAnotherLane(EventSource source) {
+        for (int i = 0; ; i++) {
+            EventSource candidate = new EventSource("fast" + i);
+            if (lane(candidate) != lane(source)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static int lane(EventSource source) {
+        int hash = source.id().hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), 2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(EventSource source, Integer value) {
+            super(source, value);
+        }
+    }
+}
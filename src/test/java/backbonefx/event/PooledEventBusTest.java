@@ -0,0 +1,114 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PooledEventBusTest {
+
+    private final PooledEventBus eventBus = new PooledEventBus();
+
+    @Test
+    public void testClaimingUnregisteredTypeThrowsException() {
+        assertThatThrownBy(() -> eventBus.claim(TickEvent.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testPostponingOperatorOnPooledEventThrowsException() {
+        assertThatThrownBy(() -> eventBus.subscribeWith(TickEvent.class, e -> { }, Debounce.of(Duration.ofMillis(10))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> eventBus.subscribeWith(Event.class, e -> { }, Throttle.of(Duration.ofMillis(10))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(eventBus.subscribeWith(TestEvent.class, e -> { }, Debounce.of(Duration.ofMillis(10)))).isNotNull();
+    }
+
+    @Test
+    public void testOperatorSubscriptionOnPooledEventIsKeyedBySubscriber() {
+        List<Long> values = new ArrayList<>();
+        Consumer<TickEvent> subscriber = e -> values.add(e.value);
+        EventOperator filter = new EventOperator() {
+            @Override
+            public <E> Consumer<E> apply(Consumer<E> target) {
+                return target::accept;
+            }
+        };
+        eventBus.registerPool(TickEvent.class, TickEvent::new, 4);
+
+        Subscription subscription = eventBus.subscribeWith(TickEvent.class, subscriber, filter);
+        assertThat(eventBus.subscribeWith(TickEvent.class, subscriber, filter)).isSameAs(subscription);
+        eventBus.publish(eventBus.claim(TickEvent.class));
+        eventBus.unsubscribe(subscriber);
+        eventBus.publish(eventBus.claim(TickEvent.class));
+
+        assertThat(values).containsExactly(0L);
+    }
+
+    @Test
+    public void testEventIsReturnedToPoolAfterPublishing() {
+        List<Long> values = new ArrayList<>();
+        eventBus.registerPool(TickEvent.class, TickEvent::new, 4);
+        eventBus.subscribe(TickEvent.class, e -> values.add(e.value));
+
+        TickEvent first = eventBus.claim(TickEvent.class);
+        first.value = 42;
+        eventBus.publish(first);
+        TickEvent second = eventBus.claim(TickEvent.class);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.value).isZero();
+        assertThat(values).containsExactly(42L);
+    }
+
+    @Test
+    public void testSteadyStatePublishingIsAllocationFree() throws ReflectiveOperationException {
+        long[] sum = new long[1];
+        eventBus.registerPool(TickEvent.class, TickEvent::new, 4);
+        eventBus.subscribe(TickEvent.class, e -> sum[0] += e.value);
+
+        // warm up the pool, the dispatch cache and the JIT
+        publishTicks(100_000);
+
+        // the library module doesn't read management modules, hence reflection
+        Object threadBean = Class.forName("java.lang.management.ManagementFactory")
+                .getMethod("getThreadMXBean")
+                .invoke(null);
+        Method allocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+                .getMethod("getThreadAllocatedBytes", long.class);
+        long threadId = Thread.currentThread().getId();
+
+        long before = (long) allocatedBytes.invoke(threadBean, threadId);
+        publishTicks(100_000);
+        long allocated = (long) allocatedBytes.invoke(threadBean, threadId) - before;
+
+        // allow for some noise from the measurement itself, but nothing per event
+        assertThat(allocated).isLessThan(10_000);
+        assertThat(sum[0]).isPositive();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void publishTicks(int count) {
+        for (int i = 0; i < count; i++) {
+            TickEvent event = eventBus.claim(TickEvent.class);
+            event.value = i;
+            eventBus.publish(event);
+        }
+    }
+
+    private static class TickEvent extends PooledEvent {
+
+        long value;
+
+        @Override
+        protected void reset() {
+            value = 0;
+        }
+    }
+}
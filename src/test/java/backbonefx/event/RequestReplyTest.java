@@ -0,0 +1,157 @@
+package backbonefx.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RequestReplyTest {
+
+    @Test
+    public void testReplyCompletesRequest() throws Exception {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        List<Event> replies = new ArrayList<>();
+        eventBus.subscribe(PingEvent.class, e -> eventBus.publish(new PongEvent(e.getId())));
+        eventBus.subscribe(PongEvent.class, replies::add);
+
+        PingEvent ping = new PingEvent();
+        CompletableFuture<PongEvent> future = eventBus.request(ping, PongEvent.class, Duration.ofSeconds(5));
+
+        PongEvent pong = future.get(1, TimeUnit.SECONDS);
+        assertThat(pong.getRequestId()).isEqualTo(ping.getId());
+        assertThat(replies).containsExactly(pong);
+    }
+
+    @Test
+    public void testUnrelatedReplyIsIgnored() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        CompletableFuture<PongEvent> future = eventBus.request(new PingEvent(), PongEvent.class, Duration.ofSeconds(5));
+
+        eventBus.publish(new PongEvent(UUID.randomUUID()));
+
+        assertThat(future).isNotDone();
+        future.cancel(false);
+    }
+
+    @Test
+    public void testRequestTimesOut() {
+        DefaultEventBus eventBus = new DefaultEventBus();
+        CompletableFuture<PongEvent> future = eventBus.request(new PingEvent(), PongEvent.class, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void testAsyncReply() throws Exception {
+        AsyncEventBus eventBus = new AsyncEventBus(AsyncEventBus.NEW_THREAD);
+        eventBus.subscribe(PingEvent.class, e -> eventBus.publish(new PongEvent(e.getId())));
+
+        PingEvent ping = new PingEvent();
+        PongEvent pong = eventBus.request(ping, PongEvent.class, Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+
+        assertThat(pong.getRequestId()).isEqualTo(ping.getId());
+    }
+
+    @Test
+    public void testReplyPublishedToChildCompletesParentRequest() throws Exception {
+        DefaultEventBus parent = new DefaultEventBus();
+        DefaultEventBus child = parent.createChild();
+        child.subscribe(PingEvent.class, e -> child.publish(new PongEvent(e.getId())));
+
+        PingEvent ping = new PingEvent();
+        PongEvent pong = parent.request(ping, PongEvent.class, Duration.ofSeconds(5)).get(1, TimeUnit.SECONDS);
+
+        assertThat(pong.getRequestId()).isEqualTo(ping.getId());
+    }
+
+    @Test
+    public void testWrappingEventBusesSupportRequests() throws Exception {
+        try (PartitionedEventBus partitioned = new PartitionedEventBus(2, AsyncEventBus.NEW_THREAD);
+             RingBufferEventBus ringBuffer = new RingBufferEventBus()) {
+            List<EventBus> eventBuses = List.of(new PooledEventBus(), partitioned, ringBuffer);
+            for (EventBus eventBus : eventBuses) {
+                // reply from another thread, ring buffer subscribers must not publish to the same bus
+                eventBus.subscribe(PingEvent.class, e -> AsyncEventBus.NEW_THREAD.execute(
+                        () -> eventBus.publish(new PongEvent(e.getId()))
+                ));
+
+                PingEvent ping = new PingEvent();
+                PongEvent pong = eventBus.request(ping, PongEvent.class, Duration.ofSeconds(5))
+                        .get(5, TimeUnit.SECONDS);
+
+                assertThat(pong.getRequestId()).isEqualTo(ping.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testTimerWheelRunsTasksInDeadlineOrder() throws InterruptedException {
+        TimerWheel timerWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 8);
+        List<Integer> fired = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+
+        // longer than a single wheel rotation
+        timerWheel.schedule(() -> {
+            fired.add(2);
+            done.countDown();
+        }, TimeUnit.MILLISECONDS.toNanos(100));
+        timerWheel.schedule(() -> {
+            fired.add(1);
+            done.countDown();
+        }, TimeUnit.MILLISECONDS.toNanos(20));
+        timerWheel.schedule(() -> fired.add(0), TimeUnit.MILLISECONDS.toNanos(10)).cancel();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testCancelledTimeoutReleasesTask() throws InterruptedException {
+        TimerWheel timerWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 1024);
+        Object captured = new Object();
+        WeakReference<Object> capturedRef = new WeakReference<>(captured);
+        TimerWheel.Timeout timeout = timerWheel.schedule(captured::notify, TimeUnit.SECONDS.toNanos(10));
+
+        // let the timer thread move the timeout into its bucket
+        Thread.sleep(50);
+        timeout.cancel();
+        //noinspection UnusedAssignment
+        captured = null;
+        for (int i = 0; i < 50 && capturedRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(capturedRef.get()).isNull();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static class PingEvent extends AbstractEvent { }
+
+    private static class PongEvent extends AbstractEvent implements ReplyEvent {
+
+        private final UUID requestId;
+
+        public PongEvent(UUID requestId) {
+            this.requestId = requestId;
+        }
+
+        @Override
+        public UUID getRequestId() {
+            return requestId;
+        }
+    }
+}
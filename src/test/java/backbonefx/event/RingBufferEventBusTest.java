@@ -0,0 +1,186 @@
+package backbonefx.event;
+
+import backbonefx.event.RingBufferEventBus.ProducerType;
+import backbonefx.event.RingBufferEventBus.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RingBufferEventBusTest {
+
+    private static final EventSource EVENT_SOURCE = new EventSource(RingBufferEventBusTest.class.getCanonicalName());
+
+    @Test
+    public void testBufferSizeMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new RingBufferEventBus(100, ProducerType.SINGLE, WaitStrategy.PARK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testPublishingToClosedBusThrowsException() {
+        RingBufferEventBus eventBus = new RingBufferEventBus();
+        eventBus.close();
+        assertThatThrownBy(() -> eventBus.publish(new IntegerEvent(1))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testSingleProducer() {
+        List<Integer> values = new ArrayList<>();
+        try (RingBufferEventBus eventBus = new RingBufferEventBus(16, ProducerType.SINGLE, WaitStrategy.YIELD)) {
+            eventBus.subscribe(IntegerEvent.class, e -> values.add(e.getValue()));
+            for (int i = 0; i < 1000; i++) {
+                eventBus.publish(new IntegerEvent(i));
+            }
+        }
+
+        assertThat(values).hasSize(1000).isSorted();
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        int producers = 4;
+        int count = 10_000;
+        AtomicInteger received = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        try (RingBufferEventBus eventBus = new RingBufferEventBus(64, ProducerType.MULTI, WaitStrategy.YIELD)) {
+            eventBus.subscribe(IntegerEvent.class, e -> received.incrementAndGet());
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < count; i++) {
+                        eventBus.publish(new IntegerEvent(i));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        assertThat(received.get()).isEqualTo(producers * count);
+    }
+
+    @Test
+    public void testClosingWhilePublishingLosesNoEvents() throws InterruptedException {
+        int producers = 4;
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        RingBufferEventBus eventBus = new RingBufferEventBus(16, ProducerType.MULTI, WaitStrategy.YIELD);
+        eventBus.subscribe(IntegerEvent.class, e -> received.incrementAndGet());
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; ; i++) {
+                        eventBus.publish(new IntegerEvent(i));
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // closed
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(50);
+        eventBus.close();
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertThat(thread.isAlive()).isFalse();
+        }
+
+        assertThat(received.get()).isEqualTo(accepted.get()).isPositive();
+    }
+
+    @Test
+    public void testParkedDispatcherIsWokenUpByPublishers() throws InterruptedException {
+        int producers = 4;
+        AtomicInteger received = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        RingBufferEventBus eventBus = new RingBufferEventBus(16, ProducerType.MULTI, WaitStrategy.PARK);
+        eventBus.subscribe(IntegerEvent.class, e -> received.incrementAndGet());
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    eventBus.publish(new IntegerEvent(i));
+                    if (i % 100 == 0) {
+                        // let the dispatcher drain the buffer and park
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertThat(thread.isAlive()).isFalse();
+        }
+
+        // the events published last are delivered without waiting for close
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.get() < producers * 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(received.get()).isEqualTo(producers * 1000);
+        eventBus.close();
+    }
+
+    @Test
+    public void testClosingFromSubscriberDoesNotBlock() throws InterruptedException {
+        RingBufferEventBus eventBus = new RingBufferEventBus();
+        CountDownLatch closed = new CountDownLatch(1);
+        eventBus.subscribe(IntegerEvent.class, e -> {
+            eventBus.close();
+            closed.countDown();
+        });
+
+        eventBus.publish(new IntegerEvent(1));
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        eventBus.close();
+        assertThatThrownBy(() -> eventBus.publish(new IntegerEvent(2))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testBatchConsumerReceivesEventsInBatches() {
+        List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger batches = new AtomicInteger();
+
+        try (RingBufferEventBus eventBus = new RingBufferEventBus(1024, ProducerType.SINGLE, WaitStrategy.PARK)) {
+            eventBus.subscribe(IntegerEvent.class, (BatchConsumer<IntegerEvent>) events -> {
+                batches.incrementAndGet();
+                events.forEach(e -> values.add(e.getValue()));
+            });
+            for (int i = 0; i < 1000; i++) {
+                eventBus.publish(new IntegerEvent(i));
+            }
+        }
+
+        assertThat(values).hasSize(1000).isSorted();
+        assertThat(batches.get()).isBetween(1, 1000);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static class IntegerEvent extends TestEvent<Integer> {
+
+        public IntegerEvent(Integer value) {
+            super(EVENT_SOURCE, value);
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class TestEvent<T> extends AbstractEvent {
     private final T value;
 
     public TestEvent(EventSource source, T value) {
+        super(source);
         this.value = value;
     }
 